@@ -0,0 +1,241 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.jspecify.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Starts the proxy as a child process against a WireMock GitHub stub and drives {@code GithubController} with the
+ * traffic of a typical replica: plain, filtered, versioned, NDJSON, revalidated and batch requests for
+ * {@value #USERS} users.
+ * <ul>
+ *     <li>{@code train <command...>} runs the command once, e.g. with {@code -XX:AOTCacheOutput}, and stops it
+ *     gracefully after the traffic so the JVM writes its AOT cache on exit.</li>
+ *     <li>{@code measure <mode>=<command> ...} starts every command in turn and prints its time to the first
+ *     successful request and its resident set size after the traffic, read from {@code /proc} on Linux.</li>
+ * </ul>
+ * A command is one string split on spaces; the port and GitHub base URL are appended as arguments.
+ */
+final class StartupDriver {
+
+    private static final int USERS = 200;
+    private static final int REPOSITORIES = 5;
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final WireMockServer github = new WireMockServer(options().dynamicPort());
+
+    static void main(final String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: train <command...> | measure <mode>=<command> ...");
+        }
+
+        final var driver = new StartupDriver();
+        driver.github.start();
+        try {
+            driver.stubGithub();
+            switch (args[0]) {
+                case "train" -> driver.train(String.join(" ", Arrays.copyOfRange(args, 1, args.length)));
+                case "measure" -> driver.measure(Arrays.copyOfRange(args, 1, args.length));
+                default -> throw new IllegalArgumentException("Unknown mode " + args[0]);
+            }
+        } finally {
+            driver.github.stop();
+            driver.httpClient.close();
+        }
+    }
+
+    private void train(final String command) throws Exception {
+        final var run = start(command);
+        try {
+            run.awaitFirstRequest();
+            drive(run.port());
+        } finally {
+            run.stop();
+        }
+        System.out.printf("Training run of '%s' finished with exit code %d%n", command, run.process().exitValue());
+    }
+
+    private void measure(final String[] modes) throws Exception {
+        final var rows = new ArrayList<String>();
+        for (final var mode : modes) {
+            final var separator = mode.indexOf('=');
+            final var name = mode.substring(0, separator);
+            final var command = mode.substring(separator + 1).trim();
+            final var executable = command.split("\\s+")[0];
+            if (executable.contains("/") && !Files.isExecutable(Path.of(executable))) {
+                rows.add("| %-8s | not built: %s |".formatted(name, executable));
+                continue;
+            }
+            final var run = start(command);
+            try {
+                final var firstRequest = run.awaitFirstRequest();
+                drive(run.port());
+                rows.add("| %-8s | %,8d ms | %,8d MB |".formatted(name, firstRequest.toMillis(), run.rssMegabytes()));
+            } finally {
+                run.stop();
+            }
+        }
+
+        System.out.println("| mode     | first request |      RSS    |");
+        System.out.println("|----------|---------------|-------------|");
+        rows.forEach(System.out::println);
+    }
+
+    private Run start(final String command) throws IOException {
+        final var port = freePort();
+        final var arguments = new ArrayList<>(List.of(command.trim().split("\\s+")));
+        arguments.add("--server.port=" + port);
+        arguments.add("--spring.http.serviceclient.github.base-url=" + github.baseUrl());
+
+        final var startedAt = System.nanoTime();
+        final var process = new ProcessBuilder(arguments)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        return new Run(process, port, startedAt);
+    }
+
+    /**
+     * Sends every kind of request the controller serves, twice per user so cached and revalidated paths run too.
+     */
+    private void drive(final int port) throws IOException, InterruptedException {
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < USERS; i++) {
+                final var path = "/users/user-%d/repositories".formatted(i);
+                final var plain = send(port, path, "application/json", null);
+                send(port, path, "application/x-ndjson", null);
+                send(port, path + "?name=repo-1&branches=none&fields=repositoryName", "application/json", null);
+                send(port, path, "application/json", "2.0");
+                final var etag = plain.headers().firstValue("ETag");
+                if (etag.isPresent()) {
+                    httpClient.send(request(port, path, "application/json", null)
+                            .header("If-None-Match", etag.get())
+                            .build(), HttpResponse.BodyHandlers.discarding());
+                }
+            }
+            httpClient.send(HttpRequest.newBuilder(URI.create("http://localhost:%d/users/repositories:batch".formatted(port)))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"usernames\":[%s]}".formatted(String.join(",",
+                            IntStream.range(0, 50).mapToObj("\"user-%d\""::formatted).toList()))))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    private HttpResponse<Void> send(final int port, final String path, final String accept, final @Nullable String version)
+            throws IOException, InterruptedException {
+        return httpClient.send(request(port, path, accept, version).build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static HttpRequest.Builder request(final int port, final String path, final String accept, final @Nullable String version) {
+        final var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", accept);
+        return version == null ? request : request.header("API-Version", version);
+    }
+
+    private void stubGithub() {
+        final var repositories = IntStream.range(0, REPOSITORIES)
+                .mapToObj(i -> "{ \"name\": \"repo-%d\", \"fork\": false, \"owner\": { \"login\": \"octocat\" }, \"default_branch\": \"main\" }".formatted(i))
+                .toList();
+        github.stubFor(get(urlPathMatching("/users/[^/]+/repos"))
+                .willReturn(okJson("[" + String.join(",", repositories) + "]").withHeader("ETag", "\"repos\"")));
+        github.stubFor(get(urlPathMatching("/repos/[^/]+/[^/]+/branches"))
+                .willReturn(okJson("""
+                        [
+                          { "name": "develop", "commit": { "sha": "0123456789abcdef0123456789abcdef01234567" } },
+                          { "name": "main", "commit": { "sha": "89abcdef0123456789abcdef0123456789abcdef" } }
+                        ]
+                        """).withHeader("ETag", "\"branches\"")));
+        github.stubFor(get(urlPathMatching("/repos/[^/]+/[^/]+/branches/[^/]+"))
+                .willReturn(okJson("""
+                        { "name": "main", "commit": { "sha": "89abcdef0123456789abcdef0123456789abcdef" } }
+                        """)));
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private final class Run {
+
+        private final Process process;
+        private final int port;
+        private final long startedAt;
+
+        private Run(final Process process, final int port, final long startedAt) {
+            this.process = process;
+            this.port = port;
+            this.startedAt = startedAt;
+        }
+
+        Process process() {
+            return process;
+        }
+
+        int port() {
+            return port;
+        }
+
+        /**
+         * Polls until the first request is answered with {@code 200} and returns the time since the process started.
+         */
+        Duration awaitFirstRequest() throws IOException, InterruptedException {
+            final var deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Proxy exited with code " + process.exitValue() + " during startup");
+                }
+                try {
+                    if (send(port, "/users/octocat/repositories", "application/json", null).statusCode() == 200) {
+                        return Duration.ofNanos(System.nanoTime() - startedAt);
+                    }
+                } catch (final ConnectException ex) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("Proxy did not answer within " + STARTUP_TIMEOUT);
+        }
+
+        long rssMegabytes() throws IOException {
+            final var status = Path.of("/proc", String.valueOf(process.pid()), "status");
+            if (!Files.exists(status)) {
+                return -1;
+            }
+            return Files.readAllLines(status).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")) >> 10)
+                    .findFirst()
+                    .orElse(-1L);
+        }
+
+        void stop() throws InterruptedException {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.ResponseEntity;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Realistic GitHub payloads and a {@link GithubService} wired against an in-process {@link GithubHttpApi} stub.
+ */
+final class BenchmarkFixtures {
+
+    static final String OWNER = "octocat";
+
+    private static final String REPO_TEMPLATE = """
+            {
+              "id": %1$d, "node_id": "R_kgDOH%1$08d", "name": "repo-%1$d", "full_name": "octocat/repo-%1$d",
+              "private": false,
+              "owner": {
+                "login": "octocat", "id": 583231, "node_id": "MDQ6VXNlcjU4MzIzMQ==",
+                "avatar_url": "https://avatars.githubusercontent.com/u/583231?v=4", "gravatar_id": "",
+                "url": "https://api.github.com/users/octocat", "html_url": "https://github.com/octocat",
+                "followers_url": "https://api.github.com/users/octocat/followers",
+                "following_url": "https://api.github.com/users/octocat/following{/other_user}",
+                "gists_url": "https://api.github.com/users/octocat/gists{/gist_id}",
+                "starred_url": "https://api.github.com/users/octocat/starred{/owner}{/repo}",
+                "subscriptions_url": "https://api.github.com/users/octocat/subscriptions",
+                "organizations_url": "https://api.github.com/users/octocat/orgs",
+                "repos_url": "https://api.github.com/users/octocat/repos",
+                "events_url": "https://api.github.com/users/octocat/events{/privacy}",
+                "received_events_url": "https://api.github.com/users/octocat/received_events",
+                "type": "User", "user_view_type": "public", "site_admin": false
+              },
+              "html_url": "https://github.com/octocat/repo-%1$d",
+              "description": "Benchmark repository number %1$d with a reasonably long description text",
+              "fork": %2$b,
+              "url": "https://api.github.com/repos/octocat/repo-%1$d",
+              "forks_url": "https://api.github.com/repos/octocat/repo-%1$d/forks",
+              "keys_url": "https://api.github.com/repos/octocat/repo-%1$d/keys{/key_id}",
+              "collaborators_url": "https://api.github.com/repos/octocat/repo-%1$d/collaborators{/collaborator}",
+              "teams_url": "https://api.github.com/repos/octocat/repo-%1$d/teams",
+              "hooks_url": "https://api.github.com/repos/octocat/repo-%1$d/hooks",
+              "issue_events_url": "https://api.github.com/repos/octocat/repo-%1$d/issues/events{/number}",
+              "events_url": "https://api.github.com/repos/octocat/repo-%1$d/events",
+              "assignees_url": "https://api.github.com/repos/octocat/repo-%1$d/assignees{/user}",
+              "branches_url": "https://api.github.com/repos/octocat/repo-%1$d/branches{/branch}",
+              "tags_url": "https://api.github.com/repos/octocat/repo-%1$d/tags",
+              "blobs_url": "https://api.github.com/repos/octocat/repo-%1$d/git/blobs{/sha}",
+              "git_tags_url": "https://api.github.com/repos/octocat/repo-%1$d/git/tags{/sha}",
+              "git_refs_url": "https://api.github.com/repos/octocat/repo-%1$d/git/refs{/sha}",
+              "trees_url": "https://api.github.com/repos/octocat/repo-%1$d/git/trees{/sha}",
+              "statuses_url": "https://api.github.com/repos/octocat/repo-%1$d/statuses/{sha}",
+              "languages_url": "https://api.github.com/repos/octocat/repo-%1$d/languages",
+              "stargazers_url": "https://api.github.com/repos/octocat/repo-%1$d/stargazers",
+              "contributors_url": "https://api.github.com/repos/octocat/repo-%1$d/contributors",
+              "subscribers_url": "https://api.github.com/repos/octocat/repo-%1$d/subscribers",
+              "subscription_url": "https://api.github.com/repos/octocat/repo-%1$d/subscription",
+              "commits_url": "https://api.github.com/repos/octocat/repo-%1$d/commits{/sha}",
+              "git_commits_url": "https://api.github.com/repos/octocat/repo-%1$d/git/commits{/sha}",
+              "comments_url": "https://api.github.com/repos/octocat/repo-%1$d/comments{/number}",
+              "issue_comment_url": "https://api.github.com/repos/octocat/repo-%1$d/issues/comments{/number}",
+              "contents_url": "https://api.github.com/repos/octocat/repo-%1$d/contents/{+path}",
+              "compare_url": "https://api.github.com/repos/octocat/repo-%1$d/compare/{base}...{head}",
+              "merges_url": "https://api.github.com/repos/octocat/repo-%1$d/merges",
+              "archive_url": "https://api.github.com/repos/octocat/repo-%1$d/{archive_format}{/ref}",
+              "downloads_url": "https://api.github.com/repos/octocat/repo-%1$d/downloads",
+              "issues_url": "https://api.github.com/repos/octocat/repo-%1$d/issues{/number}",
+              "pulls_url": "https://api.github.com/repos/octocat/repo-%1$d/pulls{/number}",
+              "milestones_url": "https://api.github.com/repos/octocat/repo-%1$d/milestones{/number}",
+              "notifications_url": "https://api.github.com/repos/octocat/repo-%1$d/notifications{?since,all,participating}",
+              "labels_url": "https://api.github.com/repos/octocat/repo-%1$d/labels{/name}",
+              "releases_url": "https://api.github.com/repos/octocat/repo-%1$d/releases{/id}",
+              "deployments_url": "https://api.github.com/repos/octocat/repo-%1$d/deployments",
+              "created_at": "2011-01-26T19:01:12Z", "updated_at": "2025-01-01T10:00:00Z", "pushed_at": "2025-01-01T10:00:00Z",
+              "git_url": "git://github.com/octocat/repo-%1$d.git", "ssh_url": "git@github.com:octocat/repo-%1$d.git",
+              "clone_url": "https://github.com/octocat/repo-%1$d.git", "svn_url": "https://github.com/octocat/repo-%1$d",
+              "homepage": null, "size": 108, "stargazers_count": 42, "watchers_count": 42, "language": "Java",
+              "has_issues": true, "has_projects": true, "has_downloads": true, "has_wiki": true, "has_pages": false,
+              "has_discussions": false, "forks_count": 7, "mirror_url": null, "archived": false, "disabled": false,
+              "open_issues_count": 3,
+              "license": { "key": "mit", "name": "MIT License", "spdx_id": "MIT",
+                           "url": "https://api.github.com/licenses/mit", "node_id": "MDc6TGljZW5zZTEz" },
+              "allow_forking": true, "is_template": false, "web_commit_signoff_required": false,
+              "topics": ["java", "spring", "benchmark"], "visibility": "public",
+              "forks": 7, "open_issues": 3, "watchers": 42, "default_branch": "main"
+            }""";
+
+    private static final String BRANCH_TEMPLATE = """
+            {
+              "name": "branch-%1$d",
+              "commit": {
+                "sha": "%2$s",
+                "url": "https://api.github.com/repos/octocat/repo/commits/%2$s"
+              },
+              "protected": false
+            }""";
+
+    private BenchmarkFixtures() {
+    }
+
+    static String reposJson(final int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> REPO_TEMPLATE.formatted(i, i % 5 == 4))
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    static String branchesJson(final int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> BRANCH_TEMPLATE.formatted(i, sha(i)))
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    static GithubRepo[] repos(final int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new GithubRepo("repo-" + i, new GithubRepo.Owner(OWNER), false, "main"))
+                .toArray(GithubRepo[]::new);
+    }
+
+    static GithubBranch[] branches(final int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new GithubBranch("branch-" + i, new GithubBranch.Commit(sha(i))))
+                .toArray(GithubBranch[]::new);
+    }
+
+    static RepositoriesCache repositoriesCache() {
+        return new RepositoriesCache(
+                new RepositoriesCacheProperties(Duration.ofMinutes(10), Duration.ofMinutes(1), 200_000, 50_000),
+                new SimpleMeterRegistry()
+        );
+    }
+
+    static GithubService githubService(final GithubHttpApi githubHttpApi, final RepositoriesCache repositoriesCache) {
+        final var meterRegistry = new SimpleMeterRegistry();
+        final var fanOutProperties = new FanOutProperties(32, 4, 256, 64, Duration.ofSeconds(2), 0.7);
+        final var concurrencyLimiter = new AdaptiveConcurrencyLimiter(fanOutProperties, meterRegistry);
+        final var rateLimitProperties = new RateLimitProperties(5, 5, Duration.ofSeconds(30));
+        final var rateLimitGovernor = new GithubRateLimitGovernor(
+                rateLimitProperties,
+                new GithubTokenPool(
+                        new GithubAuthProperties(List.of(), 5000, Duration.ofMinutes(10)),
+                        rateLimitProperties,
+                        meterRegistry
+                ),
+                meterRegistry
+        );
+
+        final var githubClient = new GithubClient(
+                githubHttpApi,
+                new GithubConditionalCache(10_000),
+                concurrencyLimiter,
+                rateLimitGovernor,
+                new GithubHedging(new HedgingProperties(false, 0.95, Duration.ofMillis(50), 100), meterRegistry)
+        );
+        final var githubGraphQlClient = new GithubGraphQlClient(
+                request -> {
+                    throw new UnsupportedOperationException("GraphQL is not benchmarked");
+                },
+                concurrencyLimiter
+        );
+
+        final var requestDeadlines = new RequestDeadlines(new DeadlineProperties(Duration.ZERO, false), meterRegistry);
+
+        return new GithubService(
+                githubClient,
+                githubGraphQlClient,
+                repositoriesCache,
+                new HotUsernames(new PrefetchProperties(false, 20, 1000, Duration.ofSeconds(30), Duration.ofSeconds(50), 0.2), meterRegistry),
+                new GithubPeers(
+                        new PeerProperties(false, "", List.of(), "", 8080, Duration.ofSeconds(30), 128,
+                                Duration.ofSeconds(5), 10_000, Duration.ofSeconds(2), ""),
+                        JsonMapper.builder().build(),
+                        requestDeadlines,
+                        meterRegistry
+                ),
+                new GithubMetrics(meterRegistry),
+                requestDeadlines,
+                fanOutProperties,
+                16,
+                GithubBackend.REST
+        );
+    }
+
+    private static String sha(final int i) {
+        return "%040x".formatted(i * 2_654_435_761L & 0xFFFF_FFFFL);
+    }
+
+    /**
+     * In-process GitHub stub answering every call with a fixed payload after the configured latency.
+     */
+    record StubGithubHttpApi(
+            GithubRepo[] repos,
+            GithubBranch[] branches,
+            Duration latency
+    ) implements GithubHttpApi {
+
+        @Override
+        public ResponseEntity<GithubRepo[]> userRepos(
+                final String username,
+                final int perPage,
+                final int page,
+                final @Nullable String ifNoneMatch,
+                final @Nullable String ifModifiedSince
+        ) {
+            simulateLatency();
+            return ResponseEntity.ok(repos);
+        }
+
+        @Override
+        public ResponseEntity<GithubBranch[]> repoBranches(
+                final String owner,
+                final String repo,
+                final int perPage,
+                final int page,
+                final @Nullable String ifNoneMatch,
+                final @Nullable String ifModifiedSince
+        ) {
+            simulateLatency();
+            return ResponseEntity.ok(branches);
+        }
+
+        @Override
+        public ResponseEntity<GithubBranch> repoBranch(
+                final String owner,
+                final String repo,
+                final String branch,
+                final @Nullable String ifNoneMatch,
+                final @Nullable String ifModifiedSince
+        ) {
+            simulateLatency();
+            return ResponseEntity.ok(branches[0]);
+        }
+
+        private void simulateLatency() {
+            if (latency.isZero()) {
+                return;
+            }
+            try {
+                Thread.sleep(latency);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
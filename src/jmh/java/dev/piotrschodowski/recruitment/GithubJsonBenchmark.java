@@ -0,0 +1,83 @@
+package dev.piotrschodowski.recruitment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class GithubJsonBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int items;
+
+    private ObjectMapper objectMapper;
+    private GithubStreamingJsonConverter streamingJsonConverter;
+    private byte[] reposJson;
+    private byte[] branchesJson;
+    private RepositoriesResponseV2 repositoriesResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        streamingJsonConverter = new GithubStreamingJsonConverter(objectMapper);
+        reposJson = BenchmarkFixtures.reposJson(items).getBytes(StandardCharsets.UTF_8);
+        branchesJson = BenchmarkFixtures.branchesJson(items).getBytes(StandardCharsets.UTF_8);
+
+        final var branches = Arrays.stream(BenchmarkFixtures.branches(5))
+                .map(branch -> new BranchResponse(branch.name(), branch.commit().sha()))
+                .toList();
+        final List<RepositoryResponse> repositories = Arrays.stream(BenchmarkFixtures.repos(items))
+                .map(repo -> new RepositoryResponse(repo.name(), repo.owner().login(), branches))
+                .toList();
+        repositoriesResponse = new RepositoriesResponseV2(repositories.size(), repositories);
+    }
+
+    @Benchmark
+    public GithubRepo[] deserializeRepos() {
+        return objectMapper.readValue(reposJson, GithubRepo[].class);
+    }
+
+    @Benchmark
+    public GithubBranch[] deserializeBranches() {
+        return objectMapper.readValue(branchesJson, GithubBranch[].class);
+    }
+
+    @Benchmark
+    public GithubRepo[] streamNonForkRepos() {
+        return streamingJsonConverter.readNonForkRepositories(new ByteArrayInputStream(reposJson));
+    }
+
+    @Benchmark
+    public GithubBranch[] streamBranches() {
+        return streamingJsonConverter.readBranches(new ByteArrayInputStream(branchesJson));
+    }
+
+    @Benchmark
+    public byte[] serializeRepositoriesResponseV2() {
+        return objectMapper.writeValueAsBytes(repositoriesResponse);
+    }
+}
@@ -0,0 +1,60 @@
+package dev.piotrschodowski.recruitment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class GithubServiceBenchmark {
+
+    @Param({"10", "100"})
+    public int repositories;
+
+    @Param({"0", "1", "20"})
+    public int upstreamLatencyMillis;
+
+    private GithubService githubService;
+    private RepositoriesCache repositoriesCache;
+    private GithubRepo repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final var stub = new BenchmarkFixtures.StubGithubHttpApi(
+                BenchmarkFixtures.repos(repositories),
+                BenchmarkFixtures.branches(5),
+                Duration.ofMillis(upstreamLatencyMillis)
+        );
+        repositoriesCache = BenchmarkFixtures.repositoriesCache();
+        githubService = BenchmarkFixtures.githubService(stub, repositoriesCache);
+        repository = stub.repos()[0];
+    }
+
+    @Benchmark
+    public RepositoryResponse mapToRepositoryResponse() {
+        return githubService.mapToRepositoryResponse(repository);
+    }
+
+    @Benchmark
+    public List<RepositoryResponse> getUserRepositoriesWithBranches() {
+        repositoriesCache.invalidateAll();
+        return githubService.getUserRepositoriesWithBranches(BenchmarkFixtures.OWNER);
+    }
+}
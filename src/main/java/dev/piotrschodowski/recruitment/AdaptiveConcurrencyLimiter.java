@@ -0,0 +1,165 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Global AIMD limit on concurrent upstream calls. Every healthy response grows the limit by {@code 1/limit}
+ * (about one permit per round of calls); a throttling response (429, or 403 carrying rate-limit headers)
+ * or a response slower than {@code latency-threshold} multiplies it by {@code backoff-ratio}. The limit is
+ * decreased at most once per round: overload signals from calls that started before the last decrease describe
+ * the load that decrease already answered, so a burst of slow responses backs off once rather than once each.
+ */
+@Component
+final class AdaptiveConcurrencyLimiter {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private final FanOutProperties properties;
+    private final long latencyThresholdNanos;
+    private final LongSupplier nanoTime;
+
+    private double limit;
+    private long lastDecreaseAt;
+    private int inFlight;
+    private int waiting;
+
+    @Autowired
+    AdaptiveConcurrencyLimiter(final FanOutProperties properties, final MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(
+            final FanOutProperties properties,
+            final MeterRegistry meterRegistry,
+            final LongSupplier nanoTime
+    ) {
+        this.properties = properties;
+        this.latencyThresholdNanos = properties.latencyThreshold().toNanos();
+        this.nanoTime = nanoTime;
+        this.limit = properties.initialLimit();
+        this.lastDecreaseAt = nanoTime.getAsLong();
+
+        Gauge.builder("github.fanout.limit", this, AdaptiveConcurrencyLimiter::currentLimit)
+                .description("Current adaptive limit of concurrent GitHub calls")
+                .register(meterRegistry);
+        Gauge.builder("github.fanout.in-flight", this, AdaptiveConcurrencyLimiter::inFlight)
+                .description("GitHub calls currently holding a permit")
+                .register(meterRegistry);
+        Gauge.builder("github.fanout.queue", this, AdaptiveConcurrencyLimiter::queueDepth)
+                .description("GitHub calls waiting for a permit")
+                .register(meterRegistry);
+    }
+
+    <T> T call(final Supplier<T> upstreamCall) {
+        acquire();
+
+        final var startedAt = nanoTime.getAsLong();
+        var outcome = Outcome.IGNORED;
+        try {
+            final var result = upstreamCall.get();
+            outcome = nanoTime.getAsLong() - startedAt > latencyThresholdNanos ? Outcome.OVERLOADED : Outcome.HEALTHY;
+            return result;
+        } catch (final RestClientResponseException ex) {
+            if (isThrottling(ex)) {
+                outcome = Outcome.OVERLOADED;
+            }
+            throw ex;
+        } finally {
+            release(outcome, startedAt);
+        }
+    }
+
+    int currentLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int queueDepth() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquire() {
+        lock.lock();
+        try {
+            waiting++;
+            try {
+                while (inFlight >= (int) limit) {
+                    permitReleased.await();
+                }
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a GitHub call permit", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(final Outcome outcome, final long startedAt) {
+        lock.lock();
+        try {
+            inFlight--;
+            switch (outcome) {
+                case HEALTHY -> limit = Math.min(properties.maxLimit(), limit + 1 / limit);
+                case OVERLOADED -> {
+                    if (startedAt - lastDecreaseAt >= 0) {
+                        limit = Math.max(properties.minLimit(), limit * properties.backoffRatio());
+                        lastDecreaseAt = nanoTime.getAsLong();
+                    }
+                }
+                case IGNORED -> {
+                }
+            }
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isThrottling(final RestClientResponseException ex) {
+        if (ex.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS)) {
+            return true;
+        }
+        final var headers = ex.getResponseHeaders();
+        return ex.getStatusCode().isSameCodeAs(HttpStatus.FORBIDDEN)
+                && headers != null
+                && (headers.containsHeader("Retry-After") || "0".equals(headers.getFirst("X-RateLimit-Remaining")));
+    }
+
+    private enum Outcome {
+        HEALTHY,
+        OVERLOADED,
+        IGNORED
+    }
+}
@@ -0,0 +1,140 @@
+package dev.piotrschodowski.recruitment;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Puts {@link ClientAdmission} in front of {@code GET /users/{username}/repositories} and of the batch endpoint.
+ * A batch is admitted once its body is read, since its cost depends on the usernames it lists. The slot is held
+ * until the response is complete, including NDJSON bodies written after the handler returned.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "github.admission", name = "enabled", havingValue = "true")
+class AdmissionConfig implements WebMvcConfigurer {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionConfig.class.getName() + ".permit";
+
+    private final ClientAdmission clientAdmission;
+
+    AdmissionConfig(final ClientAdmission clientAdmission) {
+        this.clientAdmission = clientAdmission;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdmissionInterceptor(clientAdmission))
+                .addPathPatterns("/users/*/repositories", GithubController.BATCH_REPOSITORIES_ENDPOINT);
+    }
+
+    private static String client(final ClientAdmission clientAdmission, final HttpServletRequest request) {
+        return clientAdmission.client(request.getHeader(clientAdmission.clientHeader()), request.getRemoteAddr());
+    }
+
+    private static final class AdmissionInterceptor implements HandlerInterceptor {
+
+        private final ClientAdmission clientAdmission;
+
+        private AdmissionInterceptor(final ClientAdmission clientAdmission) {
+            this.clientAdmission = clientAdmission;
+        }
+
+        @Override
+        public boolean preHandle(
+                final HttpServletRequest request,
+                final HttpServletResponse response,
+                final Object handler
+        ) {
+            // the async dispatch that completes a streamed body still runs under the permit of the original one
+            if (request.getDispatcherType() == DispatcherType.ASYNC) {
+                return true;
+            }
+
+            @SuppressWarnings("unchecked")
+            final var variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            final var username = variables == null ? null : variables.get("username");
+            if (username == null) {
+                return true;
+            }
+
+            request.setAttribute(PERMIT_ATTRIBUTE, clientAdmission.admit(client(clientAdmission, request), username));
+            return true;
+        }
+
+        @Override
+        public void afterCompletion(
+                final HttpServletRequest request,
+                final HttpServletResponse response,
+                final Object handler,
+                final @Nullable Exception ex
+        ) {
+            if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof ClientAdmission.Permit permit) {
+                request.removeAttribute(PERMIT_ATTRIBUTE);
+                permit.close();
+            }
+        }
+    }
+
+    /**
+     * Admits a batch right after its body is read; the permit is released by {@link AdmissionInterceptor}.
+     */
+    @ControllerAdvice(assignableTypes = GithubController.class)
+    @Profile("!reactive")
+    @ConditionalOnProperty(prefix = "github.admission", name = "enabled", havingValue = "true")
+    static final class BatchAdmissionAdvice extends RequestBodyAdviceAdapter {
+
+        private final ClientAdmission clientAdmission;
+
+        BatchAdmissionAdvice(final ClientAdmission clientAdmission) {
+            this.clientAdmission = clientAdmission;
+        }
+
+        @Override
+        public boolean supports(
+                final MethodParameter methodParameter,
+                final Type targetType,
+                final Class<? extends HttpMessageConverter<?>> converterType
+        ) {
+            return targetType == BatchRepositoriesRequest.class;
+        }
+
+        @Override
+        public Object afterBodyRead(
+                final Object body,
+                final HttpInputMessage inputMessage,
+                final MethodParameter parameter,
+                final Type targetType,
+                final Class<? extends HttpMessageConverter<?>> converterType
+        ) {
+            if (body instanceof BatchRepositoriesRequest(var usernames)
+                    && RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                final var request = attributes.getRequest();
+                request.setAttribute(PERMIT_ATTRIBUTE, clientAdmission.admit(
+                        client(clientAdmission, request),
+                        usernames == null ? List.of() : usernames
+                ));
+            }
+            return body;
+        }
+    }
+}
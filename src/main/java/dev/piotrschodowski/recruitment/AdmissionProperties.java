@@ -0,0 +1,21 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties("github.admission")
+record AdmissionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("64") int maxConcurrent,
+        @DefaultValue("256") int queueCapacity,
+        @DefaultValue("2s") Duration maxWait,
+        @DefaultValue("500") int bucketCapacity,
+        @DefaultValue("100") int refillPerSecond,
+        @DefaultValue("10") int unknownCost,
+        @DefaultValue("X-API-Key") String clientHeader,
+        @DefaultValue List<String> apiKeys
+) {
+}
@@ -1,10 +1,12 @@
 package dev.piotrschodowski.recruitment;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.servlet.config.annotation.ApiVersionConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
+@Profile("!reactive")
 class ApiVersioningConfig implements WebMvcConfigurer {
 
     @Override
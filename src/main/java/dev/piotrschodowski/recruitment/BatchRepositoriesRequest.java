@@ -0,0 +1,9 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+public record BatchRepositoriesRequest(
+        @Nullable List<String> usernames
+) {}
@@ -0,0 +1,13 @@
+package dev.piotrschodowski.recruitment;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchRepositoriesResult(
+        String username,
+        @Nullable List<RepositoryResponse> repositories,
+        @Nullable ErrorResponse error
+) {}
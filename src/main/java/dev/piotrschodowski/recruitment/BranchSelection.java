@@ -0,0 +1,21 @@
+package dev.piotrschodowski.recruitment;
+
+import java.util.Locale;
+
+/**
+ * Which branches a repositories request asks for. {@code NONE} needs a single upstream call per page of
+ * repositories, {@code DEFAULT} one cheap call per repository, {@code ALL} the full branch listing.
+ */
+enum BranchSelection {
+    NONE,
+    DEFAULT,
+    ALL;
+
+    static BranchSelection parse(final String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException ex) {
+            throw new InvalidRequestException("Unsupported branches value '%s', expected none, default or all".formatted(value));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reloads the trees of the most requested usernames before they go stale, so hot users never wait on GitHub.
+ * <p>
+ * Every {@code interval} the top {@code top-k} usernames of {@link HotUsernames} whose tree is missing or older
+ * than {@code refresh-after} are reloaded, hottest first. A cycle may spend at most {@code budget-share} of the
+ * calls GitHub has left, spread over the time until the rate-limit window resets; a refresh is estimated to
+ * cost one call per repository plus one for the listing, using the size of its last tree. Usernames that do not
+ * fit are left to the next cycle, and the sketch is decayed afterwards so the ranking follows recent traffic.
+ * With {@link GithubPeers peers} enabled, each replica only warms the usernames it owns.
+ */
+@Component
+@ConditionalOnProperty(prefix = "github.prefetch", name = "enabled", havingValue = "true")
+final class CacheWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmer.class);
+
+    private final PrefetchProperties properties;
+    private final HotUsernames hotUsernames;
+    private final GithubService githubService;
+    private final GithubPeers githubPeers;
+    private final RepositoriesCache repositoriesCache;
+    private final GithubRateLimitGovernor rateLimitGovernor;
+    private final Clock clock;
+    private final Map<String, Integer> lastCost = new HashMap<>();
+    private final MultiGauge hotUsers;
+    private final Timer refreshLag;
+    private final Meter.MeterProvider<Timer> refreshes;
+    private final Counter overBudget;
+
+    CacheWarmer(
+            final PrefetchProperties properties,
+            final HotUsernames hotUsernames,
+            final GithubService githubService,
+            final GithubPeers githubPeers,
+            final RepositoriesCache repositoriesCache,
+            final GithubRateLimitGovernor rateLimitGovernor,
+            final MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.hotUsernames = hotUsernames;
+        this.githubService = githubService;
+        this.githubPeers = githubPeers;
+        this.repositoriesCache = repositoriesCache;
+        this.rateLimitGovernor = rateLimitGovernor;
+        this.clock = Clock.systemUTC();
+        this.hotUsers = MultiGauge.builder("github.prefetch.hot.users")
+                .description("Estimated request count of the usernames currently kept warm")
+                .register(meterRegistry);
+        this.refreshLag = Timer.builder("github.prefetch.refresh.lag")
+                .description("Age of a cached tree when the warmer reloaded it")
+                .register(meterRegistry);
+        this.refreshes = Timer.builder("github.prefetch.refreshes")
+                .description("Background reloads of hot usernames")
+                .withRegistry(meterRegistry);
+        this.overBudget = Counter.builder("github.prefetch.skipped")
+                .description("Hot usernames left stale because the cycle's rate-limit budget was spent")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${github.prefetch.interval:30s}", fixedDelayString = "${github.prefetch.interval:30s}")
+    synchronized void warm() {
+        final var hot = hotUsernames.top(properties.topK());
+        hotUsers.register(hot.stream()
+                .map(user -> MultiGauge.Row.of(Tags.of("username", user.username()), user.count()))
+                .toList(), true);
+        lastCost.keySet().retainAll(hot.stream().map(HotUsernames.HotUsername::username).toList());
+
+        var budget = cycleBudget();
+        for (final var user : hot) {
+            final var username = user.username();
+            if (!githubPeers.owns(username)) {
+                continue;
+            }
+            final var loadedAt = repositoriesCache.loadedAt(username);
+            final var age = loadedAt == null ? null : Duration.between(loadedAt, clock.instant());
+            if (age != null && age.compareTo(properties.refreshAfter()) < 0) {
+                continue;
+            }
+
+            final var cost = lastCost.getOrDefault(username, 1);
+            if (cost > budget) {
+                overBudget.increment();
+                continue;
+            }
+            budget -= cost;
+
+            if (age != null) {
+                refreshLag.record(age);
+            }
+            refresh(username);
+        }
+        hotUsernames.decay();
+    }
+
+    private void refresh(final String username) {
+        final var sample = Timer.start();
+        var outcome = "success";
+        try {
+            githubService.refreshUserRepositories(username);
+            final var refreshed = repositoriesCache.peek(username);
+            lastCost.put(username, 1 + (refreshed == null ? 0 : refreshed.size()));
+        } catch (final RuntimeException ex) {
+            outcome = "failure";
+            log.debug("Could not prefetch repositories of {}", username, ex);
+        } finally {
+            sample.stop(refreshes.withTags("outcome", outcome));
+        }
+    }
+
+    /**
+     * The calls this cycle may spend: its share of what is left, prorated when the window resets after more than
+     * one interval. Unlimited until GitHub has reported a remaining quota.
+     */
+    private long cycleBudget() {
+        final var remaining = rateLimitGovernor.remaining();
+        if (remaining < 0) {
+            return Long.MAX_VALUE;
+        }
+
+        final var interval = properties.interval().toMillis();
+        final var window = Math.max(interval, rateLimitGovernor.untilReset().toMillis());
+        return (long) (remaining * properties.budgetShare() * interval / window);
+    }
+}
@@ -0,0 +1,208 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Admission of repository requests before any GitHub call is made. Every client, identified by one of the
+ * configured {@code api-keys} or else by its address, has a token bucket of {@code bucket-capacity} refilled at
+ * {@code refill-per-second}. A request takes as many tokens as the upstream calls it is expected to cost: one when
+ * the tree is cached here or near-cached from its owner, otherwise the listing plus one per repository of the last
+ * tree seen for the username, or {@code unknown-cost} for users not seen yet. A client out of tokens is answered {@code 429} with the time until
+ * its bucket holds enough again. A batch costs the sum over its usernames.
+ * <p>
+ * Requests within budget then share {@code max-concurrent} slots through a {@link FairQueue}, so a client with
+ * many requests waiting cannot push the others back: a request that does not get its turn within
+ * {@code max-wait}, or finds {@code queue-capacity} requests already waiting, is rejected with {@code 429} too.
+ */
+@Component
+@ConditionalOnProperty(prefix = "github.admission", name = "enabled", havingValue = "true")
+final class ClientAdmission {
+
+    private final AdmissionProperties properties;
+    private final RepositoriesCache repositoriesCache;
+    private final GithubPeers githubPeers;
+    private final Set<String> apiKeys;
+    private final FairQueue queue;
+    private final Cache<String, TokenBucket> buckets;
+    private final Cache<String, Integer> repositoryCounts;
+    private final Meter.MeterProvider<Counter> decisions;
+    private final Timer waits;
+
+    ClientAdmission(
+            final AdmissionProperties properties,
+            final RepositoriesCache repositoriesCache,
+            final GithubPeers githubPeers,
+            final MeterRegistry meterRegistry
+    ) {
+        this.properties = properties;
+        this.repositoriesCache = repositoriesCache;
+        this.githubPeers = githubPeers;
+        this.apiKeys = Set.copyOf(properties.apiKeys());
+        this.queue = new FairQueue(properties.maxConcurrent(), properties.queueCapacity(), properties.maxWait());
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofSeconds(
+                        Math.max(60, 2L * properties.bucketCapacity() / Math.max(1, properties.refillPerSecond()))))
+                .maximumSize(100_000)
+                .build();
+        this.repositoryCounts = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .build();
+
+        this.decisions = Counter.builder("github.admission.decisions")
+                .description("Repository requests by admission outcome")
+                .withRegistry(meterRegistry);
+        this.waits = Timer.builder("github.admission.wait")
+                .description("Time admitted requests waited for a slot")
+                .register(meterRegistry);
+        Gauge.builder("github.admission.queue", queue, FairQueue::queued)
+                .description("Repository requests waiting for a slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits one request of {@code client} for {@code username}, waiting for a slot if needed. The returned
+     * permit must be closed when the response is complete.
+     */
+    Permit admit(final String client, final String username) {
+        return admit(client, cost(username));
+    }
+
+    /**
+     * Admits one batch request of {@code client}, charged for every username it asks for.
+     */
+    Permit admit(final String client, final Collection<String> usernames) {
+        long cost = 0;
+        for (final var username : usernames) {
+            cost += cost(username);
+        }
+        return admit(client, (int) Math.clamp(cost, 1, properties.bucketCapacity()));
+    }
+
+    /**
+     * Identifies a client by its API key when it is one of the configured {@code api-keys}, and by its address
+     * otherwise, so made-up keys cannot each claim a fresh bucket.
+     */
+    String client(final @Nullable String apiKey, final String remoteAddress) {
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "address:" + remoteAddress;
+    }
+
+    private Permit admit(final String client, final int requestedCost) {
+        final var cost = Math.min(requestedCost, properties.bucketCapacity());
+        final var bucket = buckets.get(client, ignored -> new TokenBucket(properties.bucketCapacity(), properties.refillPerSecond()));
+        final var refillIn = bucket.take(cost, System.nanoTime());
+        if (!refillIn.isZero()) {
+            decisions.withTags("result", "rate-limited").increment();
+            throw new TooManyRequestsException(
+                    "Client exceeded its request budget of %d calls".formatted(properties.bucketCapacity()), refillIn);
+        }
+
+        final var startedAt = System.nanoTime();
+        final boolean waited;
+        try {
+            waited = queue.acquire(client);
+        } catch (final TooManyRequestsException ex) {
+            bucket.refund(cost);
+            decisions.withTags("result", "queue-rejected").increment();
+            throw ex;
+        }
+        waits.record(Duration.ofNanos(System.nanoTime() - startedAt));
+        decisions.withTags("result", waited ? "queued" : "admitted").increment();
+        return new Permit(queue);
+    }
+
+    String clientHeader() {
+        return properties.clientHeader();
+    }
+
+    private int cost(final String username) {
+        final var key = username.toLowerCase(Locale.ROOT);
+        final var cached = cachedRepositoryCount(username);
+        if (cached >= 0) {
+            repositoryCounts.put(key, cached);
+            return 1;
+        }
+        final var lastSeen = repositoryCounts.getIfPresent(key);
+        return lastSeen == null ? properties.unknownCost() : 1 + lastSeen;
+    }
+
+    /**
+     * Repositories in the tree this replica would answer from without calling GitHub, or {@code -1}.
+     */
+    private int cachedRepositoryCount(final String username) {
+        if (githubPeers.owns(username)) {
+            return repositoriesCache.repositoryCount(username);
+        }
+        final var nearCached = githubPeers.peek(username);
+        return nearCached == null ? -1 : nearCached.size();
+    }
+
+    static final class Permit implements AutoCloseable {
+
+        private final FairQueue queue;
+        private boolean released;
+
+        private Permit(final FairQueue queue) {
+            this.queue = queue;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                queue.release();
+            }
+        }
+    }
+
+    /**
+     * Tokens are kept in nanos-of-refill units, so refilling never rounds away fractions of a token.
+     */
+    private static final class TokenBucket {
+
+        private final long capacityNanos;
+        private final long nanosPerToken;
+        private long availableNanos;
+        private long refilledAt;
+
+        private TokenBucket(final int capacity, final int refillPerSecond) {
+            this.nanosPerToken = Duration.ofSeconds(1).toNanos() / Math.max(1, refillPerSecond);
+            this.capacityNanos = capacity * nanosPerToken;
+            this.availableNanos = capacityNanos;
+            this.refilledAt = System.nanoTime();
+        }
+
+        /**
+         * Takes {@code tokens} and returns zero, or leaves the bucket untouched and returns how long until it
+         * holds enough.
+         */
+        synchronized Duration take(final int tokens, final long now) {
+            availableNanos = Math.min(capacityNanos, availableNanos + (now - refilledAt));
+            refilledAt = now;
+
+            final var needed = tokens * nanosPerToken;
+            if (availableNanos >= needed) {
+                availableNanos -= needed;
+                return Duration.ZERO;
+            }
+            return Duration.ofNanos(needed - availableNanos);
+        }
+
+        synchronized void refund(final int tokens) {
+            availableNanos = Math.min(capacityNanos, availableNanos + tokens * nanosPerToken);
+        }
+    }
+}
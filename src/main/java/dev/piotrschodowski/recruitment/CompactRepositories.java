@@ -0,0 +1,151 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Storage form of a cached repository tree. Branches are laid out in flat arrays indexed by
+ * {@code branchOffsets}: names are shared through a {@link NameDictionary} and commit SHAs are packed into 20 bytes
+ * each of one {@code byte[]}, instead of a {@link BranchResponse} and two strings per branch. SHAs that are not
+ * 40 lowercase hex characters are kept verbatim on the side. The public records are rebuilt by
+ * {@link #toResponses()} when a tree is served.
+ */
+final class CompactRepositories {
+
+    private static final int SHA_BYTES = 20;
+    private static final int SHA_HEX_LENGTH = 2 * SHA_BYTES;
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final String[] repositoryNames;
+    private final String[] ownerLogins;
+    private final int[] branchOffsets;
+    private final String[] branchNames;
+    private final byte[] shas;
+    private final @Nullable String @Nullable [] irregularShas;
+    private final boolean @Nullable [] branchesTimedOut;
+
+    private CompactRepositories(
+            final String[] repositoryNames,
+            final String[] ownerLogins,
+            final int[] branchOffsets,
+            final String[] branchNames,
+            final byte[] shas,
+            final @Nullable String @Nullable [] irregularShas,
+            final boolean @Nullable [] branchesTimedOut
+    ) {
+        this.repositoryNames = repositoryNames;
+        this.ownerLogins = ownerLogins;
+        this.branchOffsets = branchOffsets;
+        this.branchNames = branchNames;
+        this.shas = shas;
+        this.irregularShas = irregularShas;
+        this.branchesTimedOut = branchesTimedOut;
+    }
+
+    static CompactRepositories of(final List<RepositoryResponse> repositories, final NameDictionary names) {
+        final var repositoryCount = repositories.size();
+        final var branchCount = repositories.stream().mapToInt(repository -> repository.branches().size()).sum();
+
+        final var repositoryNames = new String[repositoryCount];
+        final var ownerLogins = new String[repositoryCount];
+        final var branchOffsets = new int[repositoryCount + 1];
+        final var branchNames = new String[branchCount];
+        final var shas = new byte[branchCount * SHA_BYTES];
+        @Nullable String @Nullable [] irregularShas = null;
+        boolean @Nullable [] branchesTimedOut = null;
+
+        var branch = 0;
+        for (int i = 0; i < repositoryCount; i++) {
+            final var repository = repositories.get(i);
+            repositoryNames[i] = repository.repositoryName();
+            ownerLogins[i] = names.intern(repository.ownerLogin());
+            branchOffsets[i] = branch;
+            if (repository.branchesTimedOut()) {
+                if (branchesTimedOut == null) {
+                    branchesTimedOut = new boolean[repositoryCount];
+                }
+                branchesTimedOut[i] = true;
+            }
+
+            for (final var response : repository.branches()) {
+                branchNames[branch] = names.intern(response.name());
+                if (!pack(response.lastCommitSha(), shas, branch * SHA_BYTES)) {
+                    if (irregularShas == null) {
+                        irregularShas = new String[branchCount];
+                    }
+                    irregularShas[branch] = response.lastCommitSha();
+                }
+                branch++;
+            }
+        }
+        branchOffsets[repositoryCount] = branch;
+
+        return new CompactRepositories(repositoryNames, ownerLogins, branchOffsets, branchNames, shas,
+                irregularShas, branchesTimedOut);
+    }
+
+    List<RepositoryResponse> toResponses() {
+        final var repositories = new ArrayList<RepositoryResponse>(repositoryNames.length);
+        for (int i = 0; i < repositoryNames.length; i++) {
+            final var branches = new ArrayList<BranchResponse>(branchOffsets[i + 1] - branchOffsets[i]);
+            for (int branch = branchOffsets[i]; branch < branchOffsets[i + 1]; branch++) {
+                branches.add(new BranchResponse(branchNames[branch], sha(branch)));
+            }
+            repositories.add(new RepositoryResponse(
+                    repositoryNames[i],
+                    ownerLogins[i],
+                    List.copyOf(branches),
+                    branchesTimedOut != null && branchesTimedOut[i]
+            ));
+        }
+        return List.copyOf(repositories);
+    }
+
+    int repositoryCount() {
+        return repositoryNames.length;
+    }
+
+    int branchCount() {
+        return branchNames.length;
+    }
+
+    private String sha(final int branch) {
+        final var irregular = irregularShas == null ? null : irregularShas[branch];
+        if (irregular != null) {
+            return irregular;
+        }
+        return HEX.formatHex(shas, branch * SHA_BYTES, (branch + 1) * SHA_BYTES);
+    }
+
+    /**
+     * Packs a 40-character lowercase hex SHA into 20 bytes at {@code offset}, or returns {@code false} for any
+     * other string, which would not survive the round trip unchanged.
+     */
+    private static boolean pack(final String sha, final byte[] target, final int offset) {
+        if (sha.length() != SHA_HEX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < SHA_HEX_LENGTH; i++) {
+            if (nibble(sha.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        for (int i = 0; i < SHA_BYTES; i++) {
+            target[offset + i] = (byte) (nibble(sha.charAt(2 * i)) << 4 | nibble(sha.charAt(2 * i + 1)));
+        }
+        return true;
+    }
+
+    private static int nibble(final char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+}
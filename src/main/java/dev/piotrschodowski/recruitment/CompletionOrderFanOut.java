@@ -0,0 +1,114 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Forks one subtask per input and hands results to the sink in completion order, on the scope owner thread.
+ * At most {@code bufferSize} finished results wait for the sink; further subtasks block until it catches up.
+ * The first failure (of a subtask or of the sink) cancels the remaining subtasks and is rethrown.
+ * <p>
+ * With a {@code timeout}, the inputs still running when it expires are handed to the sink as
+ * {@code onTimeout} results, after which the remaining subtasks are cancelled.
+ */
+final class CompletionOrderFanOut {
+
+    private CompletionOrderFanOut() {
+    }
+
+    static <T, R> void forEach(
+            final List<T> inputs,
+            final int bufferSize,
+            final Task<? super T, ? extends R> task,
+            final Consumer<? super R> sink
+    ) {
+        forEach(inputs, bufferSize, null, task, input -> {
+            throw new IllegalStateException("No timeout was set");
+        }, sink);
+    }
+
+    static <T, R> void forEach(
+            final List<T> inputs,
+            final int bufferSize,
+            final @Nullable Duration timeout,
+            final Task<? super T, ? extends R> task,
+            final Function<? super T, ? extends R> onTimeout,
+            final Consumer<? super R> sink
+    ) {
+        final BlockingQueue<Completed<R>> completed = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+        final var deadline = timeout == null ? Long.MAX_VALUE : System.nanoTime() + timeout.toNanos();
+        final var done = new boolean[inputs.size()];
+        var expired = false;
+
+        try (var scope = StructuredTaskScope.open(
+                StructuredTaskScope.Joiner.<Void>awaitAllSuccessfulOrThrow(),
+                configuration -> timeout == null ? configuration : configuration.withTimeout(timeout)
+        )) {
+            for (int i = 0; i < inputs.size(); i++) {
+                final var index = i;
+                final var input = inputs.get(i);
+                scope.fork(() -> {
+                    try {
+                        final R result = task.apply(input);
+                        completed.put(new Completed<>(index, () -> result));
+                    } catch (final RuntimeException ex) {
+                        completed.put(new Completed<>(index, () -> {
+                            throw ex;
+                        }));
+                        throw ex;
+                    }
+                    return null;
+                });
+            }
+
+            for (int i = 0; i < inputs.size(); i++) {
+                final var next = timeout == null
+                        ? completed.take()
+                        : completed.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    expired = true;
+                    break;
+                }
+                done[next.index()] = true;
+                sink.accept(next.result().get());
+            }
+
+            if (expired) {
+                for (int i = 0; i < inputs.size(); i++) {
+                    if (!done[i]) {
+                        sink.accept(onTimeout.apply(inputs.get(i)));
+                    }
+                }
+            }
+
+            scope.join();
+
+        } catch (final StructuredTaskScope.TimeoutException e) {
+            // every input has been handed to the sink, subtasks still running were cancelled
+        } catch (final StructuredTaskScope.FailedException e) {
+            if (!expired) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while streaming results from GitHub", e);
+        }
+    }
+
+    @FunctionalInterface
+    interface Task<T, R> {
+        R apply(T input) throws InterruptedException;
+    }
+
+    private record Completed<R>(int index, Supplier<R> result) {
+    }
+}
@@ -0,0 +1,54 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Joins subtasks until all succeed, one fails, or the scope's timeout expires. The first failure cancels the
+ * scope and is rethrown by {@code join}. Unlike the built-in joiners an expired timeout is not an error:
+ * {@code join} returns the results in fork order, with {@code null} for every subtask that did not finish in time.
+ */
+final class DeadlineJoiner<T> implements StructuredTaskScope.Joiner<T, List<@Nullable T>> {
+
+    // only touched by the scope owner, in fork and join
+    private final List<StructuredTaskScope.Subtask<? extends T>> subtasks = new ArrayList<>();
+    private final AtomicReference<@Nullable Throwable> failure = new AtomicReference<>();
+
+    @Override
+    public boolean onFork(final StructuredTaskScope.Subtask<? extends T> subtask) {
+        subtasks.add(subtask);
+        return false;
+    }
+
+    @Override
+    public boolean onComplete(final StructuredTaskScope.Subtask<? extends T> subtask) {
+        if (subtask.state() == StructuredTaskScope.Subtask.State.FAILED) {
+            failure.compareAndSet(null, subtask.exception());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void onTimeout() {
+        // keep what finished in time, the rest is reported as null
+    }
+
+    @Override
+    public List<@Nullable T> result() throws Throwable {
+        final var firstFailure = failure.get();
+        if (firstFailure != null) {
+            throw firstFailure;
+        }
+
+        final var results = new ArrayList<@Nullable T>(subtasks.size());
+        for (final var subtask : subtasks) {
+            results.add(subtask.state() == StructuredTaskScope.Subtask.State.SUCCESS ? subtask.get() : null);
+        }
+        return results;
+    }
+}
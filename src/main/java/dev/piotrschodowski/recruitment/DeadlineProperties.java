@@ -0,0 +1,13 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("github.deadline")
+record DeadlineProperties(
+        @DefaultValue("0s") Duration requestTimeout,
+        @DefaultValue("false") boolean partialResults
+) {
+}
@@ -0,0 +1,180 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Counting semaphore whose waiters are served round-robin by client rather than in arrival order, so a client
+ * with many queued requests delays everyone else by at most one request per turn. A freed slot is handed straight
+ * to the next waiter. At most {@code capacity} requests wait at once, each for at most {@code maxWait}; when
+ * the queue is full, a newcomer displaces the latest waiter of the client with the longest backlog, and is only
+ * turned away itself when no client has more waiting than it would.
+ */
+final class FairQueue {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // insertion order is the round-robin order; a client moves to the back after each grant
+    private final LinkedHashMap<String, ArrayDeque<CompletableFuture<Void>>> waiters = new LinkedHashMap<>();
+    private final int capacity;
+    private final Duration maxWait;
+    private int available;
+    private int queued;
+
+    FairQueue(final int slots, final int capacity, final Duration maxWait) {
+        this.available = slots;
+        this.capacity = capacity;
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Takes a slot for {@code client}, waiting for its turn when none is free. Returns whether the request had to
+     * wait, and fails with {@link TooManyRequestsException} when the queue is full or the wait runs out.
+     */
+    boolean acquire(final String client) {
+        return acquire(client, new CompletableFuture<>());
+    }
+
+    /**
+     * Takes a slot, waiting on {@code turn}, which a releasing thread completes to hand its slot over.
+     */
+    boolean acquire(final String client, final CompletableFuture<Void> turn) {
+        lock.lock();
+        try {
+            if (available > 0 && queued == 0) {
+                available--;
+                return false;
+            }
+            final var own = waiters.computeIfAbsent(client, ignored -> new ArrayDeque<>());
+            if (queued >= capacity && !displaceLongestBacklog(own.size() + 1)) {
+                if (own.isEmpty()) {
+                    waiters.remove(client);
+                }
+                throw queueFull();
+            }
+            own.add(turn);
+            queued++;
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            turn.get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (final TimeoutException ex) {
+            if (abandon(client, turn)) {
+                throw new TooManyRequestsException("Request waited too long for its turn, retry later", maxWait);
+            }
+            return true;
+        } catch (final InterruptedException ex) {
+            if (!abandon(client, turn)) {
+                release();
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for admission", ex);
+        } catch (final ExecutionException ex) {
+            if (ex.getCause() instanceof TooManyRequestsException displaced) {
+                throw displaced;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    void release() {
+        lock.lock();
+        try {
+            final var next = nextWaiter();
+            if (next == null) {
+                available++;
+            } else {
+                next.complete(null);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes a waiter that gave up. Returns {@code false} when it was granted a slot in the meantime, which the
+     * caller then owns.
+     */
+    private boolean abandon(final String client, final CompletableFuture<Void> turn) {
+        lock.lock();
+        try {
+            if (turn.isDone()) {
+                return turn.isCompletedExceptionally();
+            }
+            final var queue = waiters.get(client);
+            if (queue != null && queue.remove(turn)) {
+                queued--;
+                if (queue.isEmpty()) {
+                    waiters.remove(client);
+                }
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean displaceLongestBacklog(final int newcomerBacklog) {
+        @Nullable ArrayDeque<CompletableFuture<Void>> longest = null;
+        @Nullable String longestClient = null;
+        for (final var entry : waiters.entrySet()) {
+            if (longest == null || entry.getValue().size() > longest.size()) {
+                longest = entry.getValue();
+                longestClient = entry.getKey();
+            }
+        }
+        if (longest == null || longest.size() <= newcomerBacklog) {
+            return false;
+        }
+
+        final var displaced = longest.pollLast();
+        if (longest.isEmpty()) {
+            waiters.remove(longestClient);
+        }
+        queued--;
+        if (displaced != null) {
+            displaced.completeExceptionally(queueFull());
+        }
+        return true;
+    }
+
+    private TooManyRequestsException queueFull() {
+        return new TooManyRequestsException("Too many requests are queued, retry later", maxWait);
+    }
+
+    private @Nullable CompletableFuture<Void> nextWaiter() {
+        final var iterator = waiters.entrySet().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+
+        final var entry = iterator.next();
+        iterator.remove();
+        final var queue = entry.getValue();
+        final var next = queue.poll();
+        if (!queue.isEmpty()) {
+            waiters.put(entry.getKey(), queue);
+        }
+        queued--;
+        return next;
+    }
+}
@@ -0,0 +1,17 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("github.fanout")
+record FanOutProperties(
+        @DefaultValue("32") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("256") int maxLimit,
+        @DefaultValue("64") int perRequestLimit,
+        @DefaultValue("2s") Duration latencyThreshold,
+        @DefaultValue("0.7") double backoffRatio
+) {
+}
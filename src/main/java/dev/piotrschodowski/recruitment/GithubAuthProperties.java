@@ -0,0 +1,15 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties("github.auth")
+record GithubAuthProperties(
+        @DefaultValue List<String> tokens,
+        @DefaultValue("5000") int assumedLimit,
+        @DefaultValue("10m") Duration invalidTokenBackoff
+) {
+}
@@ -0,0 +1,6 @@
+package dev.piotrschodowski.recruitment;
+
+enum GithubBackend {
+    REST,
+    GRAPHQL
+}
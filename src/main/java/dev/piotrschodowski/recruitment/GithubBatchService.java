@@ -0,0 +1,122 @@
+package dev.piotrschodowski.recruitment;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.function.Consumer;
+
+/**
+ * Resolves many usernames in one call through {@link GithubService}. All batches share one pool of
+ * {@code github.batch.concurrency} permits, so a large batch queues behind its own users instead of
+ * multiplying the load on GitHub. A failing user becomes an error entry and never fails the batch.
+ */
+@Service
+final class GithubBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(GithubBatchService.class);
+
+    private final GithubService githubService;
+    private final Semaphore permits;
+    private final int maxUsernames;
+    private final int streamBufferSize;
+
+    GithubBatchService(
+            final GithubService githubService,
+            @Value("${github.batch.concurrency:16}") final int concurrency,
+            @Value("${github.batch.max-usernames:500}") final int maxUsernames,
+            @Value("${github.streaming.buffer-size:16}") final int streamBufferSize
+    ) {
+        this.githubService = githubService;
+        this.permits = new Semaphore(concurrency, true);
+        this.maxUsernames = maxUsernames;
+        this.streamBufferSize = streamBufferSize;
+    }
+
+    /**
+     * Returns one result per distinct username, in request order.
+     */
+    List<BatchRepositoriesResult> getUserRepositories(final BatchRepositoriesRequest request) {
+        final var usernames = validate(request);
+
+        try (var scope = StructuredTaskScope.open(
+                StructuredTaskScope.Joiner.<BatchRepositoriesResult>allSuccessfulOrThrow()
+        )) {
+            final var tasks = usernames.stream()
+                    .map(username -> scope.fork(() -> resolve(username)))
+                    .toList();
+
+            scope.join();
+
+            return tasks.stream()
+                    .map(StructuredTaskScope.Subtask::get)
+                    .toList();
+
+        } catch (final StructuredTaskScope.FailedException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while resolving a batch of GitHub users", e);
+        }
+    }
+
+    /**
+     * Validates the request eagerly and returns a stream handing results to the sink as users complete.
+     */
+    ResultStream streamUserRepositories(final BatchRepositoriesRequest request) {
+        final var usernames = validate(request);
+
+        return sink -> CompletionOrderFanOut.forEach(usernames, streamBufferSize, this::resolve, sink);
+    }
+
+    private BatchRepositoriesResult resolve(final String username) throws InterruptedException {
+        permits.acquire();
+        try {
+            return new BatchRepositoriesResult(username, githubService.getUserRepositories(username, RepositoryQuery.ALL), null);
+        } catch (final GithubUserNotFoundException ex) {
+            return failed(username, HttpStatus.NOT_FOUND, ex.getMessage());
+        } catch (final GithubUnavailableException ex) {
+            return failed(username, HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        } catch (final GithubTimeoutException ex) {
+            return failed(username, HttpStatus.GATEWAY_TIMEOUT, ex.getMessage());
+        } catch (final RuntimeException ex) {
+            log.warn("Failed to resolve repositories of '{}' in batch", username, ex);
+            return failed(username, HttpStatus.BAD_GATEWAY, "Failed to load repositories from GitHub");
+        } finally {
+            permits.release();
+        }
+    }
+
+    private List<String> validate(final BatchRepositoriesRequest request) {
+        final var usernames = request.usernames();
+        if (usernames == null || usernames.isEmpty()) {
+            throw new InvalidRequestException("At least one username is required");
+        }
+        if (usernames.stream().anyMatch(username -> username == null || username.isBlank())) {
+            throw new InvalidRequestException("Usernames must not be blank");
+        }
+
+        final var distinct = List.copyOf(new LinkedHashSet<>(usernames));
+        if (distinct.size() > maxUsernames) {
+            throw new InvalidRequestException(
+                    "At most %d usernames are allowed per batch, got %d".formatted(maxUsernames, distinct.size())
+            );
+        }
+        return distinct;
+    }
+
+    private static BatchRepositoriesResult failed(final String username, final HttpStatus status, final String message) {
+        return new BatchRepositoriesResult(username, null, new ErrorResponse(status.value(), message));
+    }
+
+    @FunctionalInterface
+    interface ResultStream {
+        void forEach(Consumer<? super BatchRepositoriesResult> sink);
+    }
+}
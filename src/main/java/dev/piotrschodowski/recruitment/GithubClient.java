@@ -1,49 +1,172 @@
 // src/main/java/dev/piotrschodowski/recruitment/GithubClient.java
 package dev.piotrschodowski.recruitment;
 
+import org.jspecify.annotations.Nullable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientResponseException;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.stream.IntStream;
 
 @Component
 final class GithubClient {
 
+    static final int PER_PAGE = 100;
+
     private final GithubHttpApi githubHttpApi;
+    private final GithubConditionalCache conditionalCache;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final GithubRateLimitGovernor rateLimitGovernor;
+    private final GithubHedging hedging;
+    private final SingleFlight<String, List<GithubBranch>> branchFlights = new SingleFlight<>();
 
-    GithubClient(final GithubHttpApi githubHttpApi) {
+    GithubClient(
+            final GithubHttpApi githubHttpApi,
+            final GithubConditionalCache conditionalCache,
+            final AdaptiveConcurrencyLimiter concurrencyLimiter,
+            final GithubRateLimitGovernor rateLimitGovernor,
+            final GithubHedging hedging
+    ) {
         this.githubHttpApi = githubHttpApi;
+        this.conditionalCache = conditionalCache;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.rateLimitGovernor = rateLimitGovernor;
+        this.hedging = hedging;
     }
 
     List<GithubRepo> fetchUserRepositories(final String username) {
         try {
-            final var repos = Objects.requireNonNull(
-                    githubHttpApi.userRepos(username),
-                    "GitHub returned null body for repositories"
+            return fetchAllPages(
+                    "/users/%s/repos".formatted(username),
+                    false,
+                    (page, ifNoneMatch, ifModifiedSince) ->
+                            githubHttpApi.userRepos(username, PER_PAGE, page, ifNoneMatch, ifModifiedSince)
             );
-
-            return Arrays.stream(repos).toList();
         } catch (RestClientResponseException ex) {
             throw handleClientError(ex, username);
         }
     }
 
     List<GithubBranch> fetchRepositoryBranches(final String ownerLogin, final String repositoryName) {
-        final var branches = Objects.requireNonNull(
-                githubHttpApi.repoBranches(ownerLogin, repositoryName),
-                "GitHub returned null body for branches"
+        final var resource = "/repos/%s/%s/branches".formatted(ownerLogin, repositoryName);
+
+        try {
+            return branchFlights.execute(resource, () -> fetchAllPages(
+                    resource,
+                    true,
+                    (page, ifNoneMatch, ifModifiedSince) ->
+                            githubHttpApi.repoBranches(ownerLogin, repositoryName, PER_PAGE, page, ifNoneMatch, ifModifiedSince)
+            ));
+        } catch (RestClientResponseException ex) {
+            throw handleRateLimitError(ex);
+        }
+    }
+
+    /**
+     * Fetches a single branch head, or returns {@code null} when the branch no longer exists
+     * (an empty repository has a default branch name but no branch).
+     */
+    @Nullable GithubBranch fetchRepositoryBranch(final String ownerLogin, final String repositoryName, final String branch) {
+        try {
+            return fetchValidated(
+                    "/repos/%s/%s/branches/%s".formatted(ownerLogin, repositoryName, branch),
+                    true,
+                    (ifNoneMatch, ifModifiedSince) ->
+                            githubHttpApi.repoBranch(ownerLogin, repositoryName, branch, ifNoneMatch, ifModifiedSince)
+            ).body();
+        } catch (RestClientResponseException ex) {
+            if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
+                return null;
+            }
+            throw handleRateLimitError(ex);
+        }
+    }
+
+    private <T> List<T> fetchAllPages(final String resource, final boolean hedged, final PageCall<T[]> call) {
+        final var firstPage = fetchPage(resource, 1, hedged, call);
+        final var lastPage = GithubLinkHeader.lastPage(firstPage.link());
+
+        if (lastPage <= 1) {
+            return List.of(firstPage.body());
+        }
+
+        try (var scope = StructuredTaskScope.open(StructuredTaskScope.Joiner.<T[]>allSuccessfulOrThrow())) {
+            final var remainingPages = IntStream.rangeClosed(2, lastPage)
+                    .mapToObj(page -> scope.fork(() -> fetchPage(resource, page, hedged, call).body()))
+                    .toList();
+
+            scope.join();
+
+            final var items = new ArrayList<T>(firstPage.body().length + (lastPage - 1) * PER_PAGE);
+            Collections.addAll(items, firstPage.body());
+            remainingPages.forEach(page -> Collections.addAll(items, page.get()));
+            return Collections.unmodifiableList(items);
+
+        } catch (final StructuredTaskScope.FailedException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while fetching pages of " + resource + " from GitHub", e);
+        }
+    }
+
+    private <T> GithubConditionalCache.CachedResponse<T> fetchPage(
+            final String resource,
+            final int page,
+            final boolean hedged,
+            final PageCall<T> call
+    ) {
+        return fetchValidated(
+                resource + "?page=" + page,
+                hedged,
+                (ifNoneMatch, ifModifiedSince) -> call.execute(page, ifNoneMatch, ifModifiedSince)
         );
+    }
 
-        return Arrays.stream(branches).toList();
+    /**
+     * Branch reads are {@code hedged}: their latency decides how long a whole tree takes, and repeating them is
+     * cheap because they are conditional.
+     */
+    private <T> GithubConditionalCache.CachedResponse<T> fetchValidated(
+            final String resource,
+            final boolean hedged,
+            final GithubConditionalCache.ConditionalCall<T> call
+    ) {
+        try {
+            return conditionalCache.fetch(
+                    resource,
+                    (ifNoneMatch, ifModifiedSince) -> hedged
+                            ? hedging.call(() -> concurrencyLimiter.call(() -> call.execute(ifNoneMatch, ifModifiedSince)))
+                            : concurrencyLimiter.call(() -> call.execute(ifNoneMatch, ifModifiedSince))
+            );
+        } catch (GithubUnavailableException ex) {
+            final GithubConditionalCache.CachedResponse<T> cached = conditionalCache.peek(resource);
+            if (cached == null) {
+                throw ex;
+            }
+            return cached;
+        }
     }
 
-    private static RuntimeException handleClientError(final RestClientResponseException ex, final String username) {
+    private RuntimeException handleClientError(final RestClientResponseException ex, final String username) {
         if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
             return new GithubUserNotFoundException(username);
         }
-        return ex;
+        return handleRateLimitError(ex);
+    }
+
+    private RuntimeException handleRateLimitError(final RestClientResponseException ex) {
+        final var rateLimited = rateLimitGovernor.rateLimited(ex.getStatusCode());
+        return rateLimited != null ? rateLimited : ex;
+    }
+
+    @FunctionalInterface
+    private interface PageCall<T> {
+        ResponseEntity<T> execute(int page, @Nullable String ifNoneMatch, @Nullable String ifModifiedSince);
     }
 }
\ No newline at end of file
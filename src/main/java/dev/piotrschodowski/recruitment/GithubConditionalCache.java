@@ -0,0 +1,165 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Remembers the last body and validators (ETag / Last-Modified) returned by GitHub per resource,
+ * so repeated calls can be revalidated with a conditional request. GitHub does not count
+ * {@code 304 Not Modified} answers against the rate limit. At most {@code max-entries} resources are kept;
+ * beyond that the least valuable ones are evicted.
+ */
+@Component
+final class GithubConditionalCache {
+
+    private final Cache<String, Entry<?>> entries;
+    private final List<Visitor> storeListeners = new CopyOnWriteArrayList<>();
+
+    GithubConditionalCache(@Value("${github.conditional-cache.max-entries:10000}") final int maxEntries) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    <T> CachedResponse<T> fetch(final String resource, final ConditionalCall<T> call) {
+        final var cached = this.<T>lookup(resource);
+
+        final var response = cached == null
+                ? call.execute(null, null)
+                : call.execute(cached.etag(), cached.lastModified());
+
+        return accept(resource, response, cached == null ? null : cached.response());
+    }
+
+    /**
+     * Validators to send with the next request for {@code resource}, together with the body they belong to, for
+     * callers that cannot block in {@link #fetch} and pass the answer to {@link #accept} once it arrives.
+     */
+    <T> Validators<T> validators(final String resource) {
+        final var cached = this.<T>lookup(resource);
+        return cached == null
+                ? new Validators<>(null, null, null)
+                : new Validators<>(cached.etag(), cached.lastModified(), cached.response());
+    }
+
+    /**
+     * Resolves a GitHub answer to a request sent with {@code sent}: a {@code 304} to the body those validators
+     * belong to, anything else to the new body, which is stored with its validators.
+     */
+    <T> CachedResponse<T> accept(final String resource, final ResponseEntity<T> response, final Validators<T> sent) {
+        return accept(resource, response, sent.response());
+    }
+
+    /**
+     * A {@code 304} is resolved against the entry whose validators were sent rather than looked up again, since
+     * the entry may have been evicted or invalidated while the request was in flight.
+     */
+    private <T> CachedResponse<T> accept(
+            final String resource,
+            final ResponseEntity<T> response,
+            final @Nullable CachedResponse<T> sent
+    ) {
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            if (sent == null) {
+                throw new IllegalStateException("GitHub answered 304 for '%s' without a cached body".formatted(resource));
+            }
+            return sent;
+        }
+
+        final var body = Objects.requireNonNull(
+                response.getBody(),
+                "GitHub returned null body for " + resource
+        );
+        final var fetched = new CachedResponse<>(body, response.getHeaders().getFirst(HttpHeaders.LINK));
+        store(resource, response.getHeaders(), fetched);
+        return fetched;
+    }
+
+    <T> @Nullable CachedResponse<T> peek(final String resource) {
+        final var cached = this.<T>lookup(resource);
+        return cached == null ? null : cached.response();
+    }
+
+    /**
+     * Registers a callback run on the caller's thread whenever a validated body is stored.
+     */
+    void onStore(final Visitor listener) {
+        storeListeners.add(listener);
+    }
+
+    /**
+     * Re-inserts a previously stored body and its validators unless the resource is already cached.
+     */
+    <T> void restore(
+            final String resource,
+            final @Nullable String etag,
+            final @Nullable String lastModified,
+            final CachedResponse<T> response
+    ) {
+        if (etag == null && lastModified == null) {
+            return;
+        }
+        entries.asMap().putIfAbsent(resource, new Entry<>(etag, lastModified, response));
+    }
+
+    void forEach(final Visitor visitor) {
+        entries.asMap().forEach((resource, entry) -> visitor.visit(resource, entry.etag(), entry.lastModified(), entry.response()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> @Nullable Entry<T> lookup(final String resource) {
+        return (Entry<T>) entries.getIfPresent(resource);
+    }
+
+    private <T> void store(final String resource, final HttpHeaders headers, final CachedResponse<T> response) {
+        final var etag = headers.getETag();
+        final var lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+
+        if (etag == null && lastModified == null) {
+            entries.invalidate(resource);
+            return;
+        }
+        entries.put(resource, new Entry<>(etag, lastModified, response));
+        storeListeners.forEach(listener -> listener.visit(resource, etag, lastModified, response));
+    }
+
+    @FunctionalInterface
+    interface ConditionalCall<T> {
+        ResponseEntity<T> execute(@Nullable String ifNoneMatch, @Nullable String ifModifiedSince);
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        void visit(String resource, @Nullable String etag, @Nullable String lastModified, CachedResponse<?> response);
+    }
+
+    record Validators<T>(
+            @Nullable String etag,
+            @Nullable String lastModified,
+            @Nullable CachedResponse<T> response
+    ) {
+    }
+
+    record CachedResponse<T>(
+            T body,
+            @Nullable String link
+    ) {
+    }
+
+    private record Entry<T>(
+            @Nullable String etag,
+            @Nullable String lastModified,
+            CachedResponse<T> response
+    ) {
+    }
+}
@@ -1,30 +1,192 @@
 package dev.piotrschodowski.recruitment;
 
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.node.ObjectNode;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 @RestController
+@Profile("!reactive")
 public class GithubController {
 
     private static final String USER_REPOSITORIES_ENDPOINT = "/users/{username}/repositories";
+    static final String BATCH_REPOSITORIES_ENDPOINT = "/users/repositories:batch";
+    private static final Set<RepositoryField> ALL_FIELDS = EnumSet.allOf(RepositoryField.class);
 
     private final GithubService githubService;
+    private final GithubBatchService githubBatchService;
+    private final GithubMetrics githubMetrics;
+    private final ObjectMapper objectMapper;
 
-    GithubController(final GithubService githubService) {
+    GithubController(
+            final GithubService githubService,
+            final GithubBatchService githubBatchService,
+            final GithubMetrics githubMetrics,
+            final ObjectMapper objectMapper
+    ) {
         this.githubService = githubService;
+        this.githubBatchService = githubBatchService;
+        this.githubMetrics = githubMetrics;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping(USER_REPOSITORIES_ENDPOINT)
-    public List<RepositoryResponse> listUserNonForkRepositories(@PathVariable final String username) {
-        return githubService.getUserRepositoriesWithBranches(username);
+    public @Nullable List<?> listUserNonForkRepositories(
+            @PathVariable final String username,
+            @RequestParam(required = false) final @Nullable String name,
+            @RequestParam(required = false) final @Nullable String branches,
+            @RequestParam(required = false) final @Nullable String fields,
+            final WebRequest webRequest
+    ) {
+        final var selectedFields = selectedFields(fields, branches);
+        final var query = query(name, branches, selectedFields);
+
+        final var repos = githubMetrics.measureRequestCost(() -> githubService.getUserRepositories(username, query));
+        if (webRequest.checkNotModified(RepositoriesETag.of(variant("1.0", query, selectedFields), repos))) {
+            return null;
+        }
+        if (selectedFields.containsAll(ALL_FIELDS)) {
+            return repos;
+        }
+        return repos.stream().map(repo -> project(repo, selectedFields)).toList();
     }
 
     @GetMapping(value = USER_REPOSITORIES_ENDPOINT, version = "2.0")
-    public RepositoriesResponseV2 listUserNonForkRepositoriesV2(@PathVariable final String username) {
-        final var repos = githubService.getUserRepositoriesWithBranches(username);
+    public @Nullable RepositoriesResponseV2 listUserNonForkRepositoriesV2(
+            @PathVariable final String username,
+            @RequestParam(required = false) final @Nullable String name,
+            @RequestParam(required = false) final @Nullable String branches,
+            final WebRequest webRequest
+    ) {
+        final var query = query(name, branches, ALL_FIELDS);
+        final var repos = githubMetrics.measureRequestCost(() -> githubService.getUserRepositories(username, query));
+        if (webRequest.checkNotModified(RepositoriesETag.of(variant("2.0", query, ALL_FIELDS), repos))) {
+            return null;
+        }
         return new RepositoriesResponseV2(repos.size(), repos);
     }
+
+    @GetMapping(value = USER_REPOSITORIES_ENDPOINT, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamUserNonForkRepositories(
+            @PathVariable final String username,
+            @RequestParam(required = false) final @Nullable String name,
+            @RequestParam(required = false) final @Nullable String branches,
+            @RequestParam(required = false) final @Nullable String fields
+    ) {
+        final var selectedFields = selectedFields(fields, branches);
+        final var query = query(name, branches, selectedFields);
+        final var projected = !selectedFields.containsAll(ALL_FIELDS);
+
+        final var upstreamCalls = new LongAdder();
+        final var repos = githubMetrics.countUpstreamCalls(
+                upstreamCalls,
+                () -> githubService.streamUserRepositoriesWithBranches(username, query)
+        );
+
+        return outputStream -> {
+            try {
+                githubMetrics.countUpstreamCalls(upstreamCalls, () -> {
+                    repos.forEach(repo -> writeLine(outputStream, projected ? project(repo, selectedFields) : repo));
+                    return null;
+                });
+            } finally {
+                githubMetrics.recordRequestCost(upstreamCalls);
+            }
+        };
+    }
+
+    @PostMapping(BATCH_REPOSITORIES_ENDPOINT)
+    public List<BatchRepositoriesResult> listUsersNonForkRepositories(@RequestBody final BatchRepositoriesRequest request) {
+        return githubMetrics.measureRequestCost(() -> githubBatchService.getUserRepositories(request));
+    }
+
+    @PostMapping(value = BATCH_REPOSITORIES_ENDPOINT, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamUsersNonForkRepositories(@RequestBody final BatchRepositoriesRequest request) {
+        final var results = githubBatchService.streamUserRepositories(request);
+
+        return outputStream -> {
+            final var upstreamCalls = new LongAdder();
+            try {
+                githubMetrics.countUpstreamCalls(upstreamCalls, () -> {
+                    results.forEach(result -> writeLine(outputStream, result));
+                    return null;
+                });
+            } finally {
+                githubMetrics.recordRequestCost(upstreamCalls);
+            }
+        };
+    }
+
+    /**
+     * Without {@code fields=}, {@code branches=none} drops the then always empty {@code branches} field.
+     */
+    private static Set<RepositoryField> selectedFields(final @Nullable String fields, final @Nullable String branches) {
+        if (fields != null) {
+            return RepositoryField.parse(fields);
+        }
+        if (branches != null && BranchSelection.parse(branches) == BranchSelection.NONE) {
+            return EnumSet.complementOf(EnumSet.of(RepositoryField.BRANCHES));
+        }
+        return ALL_FIELDS;
+    }
+
+    /**
+     * Not selecting {@code branches} is pushed down as {@code branches=none}, so no branch is fetched.
+     */
+    private static RepositoryQuery query(
+            final @Nullable String name,
+            final @Nullable String branches,
+            final Set<RepositoryField> fields
+    ) {
+        if (!fields.contains(RepositoryField.BRANCHES)) {
+            return RepositoryQuery.of(name, BranchSelection.NONE);
+        }
+        return RepositoryQuery.of(name, branches == null ? BranchSelection.ALL : BranchSelection.parse(branches));
+    }
+
+    private static String variant(final String version, final RepositoryQuery query, final Set<RepositoryField> fields) {
+        return version + ';' + query.name() + ';' + query.branches() + ';' + fields;
+    }
+
+    private ObjectNode project(final RepositoryResponse repository, final Set<RepositoryField> fields) {
+        final var node = objectMapper.createObjectNode();
+        for (final var field : fields) {
+            switch (field) {
+                case REPOSITORY_NAME -> node.put(field.jsonName(), repository.repositoryName());
+                case OWNER_LOGIN -> node.put(field.jsonName(), repository.ownerLogin());
+                case BRANCHES -> node.set(field.jsonName(), objectMapper.valueToTree(repository.branches()));
+            }
+        }
+        if (repository.branchesTimedOut() && fields.contains(RepositoryField.BRANCHES)) {
+            node.put("branchesTimedOut", true);
+        }
+        return node;
+    }
+
+    private void writeLine(final OutputStream outputStream, final Object value) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(value));
+            outputStream.write('\n');
+            outputStream.flush();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PostExchange;
+
+@HttpExchange(accept = "application/json", contentType = "application/json")
+public interface GithubGraphQlApi {
+
+    @PostExchange("/graphql")
+    GithubGraphQlResponse query(@RequestBody GithubGraphQlRequest request);
+}
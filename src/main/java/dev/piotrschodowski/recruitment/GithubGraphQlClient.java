@@ -0,0 +1,133 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads non-fork repositories together with their branch heads through the GitHub GraphQL API,
+ * 100 repositories (each with up to 100 branches) per round-trip. Logins are resolved as a
+ * {@code RepositoryOwner}, so organizations are served like users, as on the REST {@code /users/{login}/repos}.
+ */
+@Component
+final class GithubGraphQlClient {
+
+    private static final String USER_REPOSITORIES_QUERY = """
+            query($login: String!, $after: String) {
+              repositoryOwner(login: $login) {
+                repositories(first: 100, after: $after, isFork: false, privacy: PUBLIC,
+                              ownerAffiliations: OWNER, orderBy: {field: NAME, direction: ASC}) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes {
+                    name
+                    owner { login }
+                    refs(refPrefix: "refs/heads/", first: 100, orderBy: {field: ALPHABETICAL, direction: ASC}) {
+                      pageInfo { hasNextPage endCursor }
+                      nodes { name target { oid } }
+                    }
+                  }
+                }
+              }
+            }
+            """;
+
+    private static final String REPOSITORY_REFS_QUERY = """
+            query($owner: String!, $name: String!, $after: String) {
+              repository(owner: $owner, name: $name) {
+                name
+                owner { login }
+                refs(refPrefix: "refs/heads/", first: 100, after: $after, orderBy: {field: ALPHABETICAL, direction: ASC}) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes { name target { oid } }
+                }
+              }
+            }
+            """;
+
+    private final GithubGraphQlApi githubGraphQlApi;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    GithubGraphQlClient(final GithubGraphQlApi githubGraphQlApi, final AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.githubGraphQlApi = githubGraphQlApi;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    List<RepositoryResponse> fetchUserRepositoriesWithBranches(final String username) {
+        final var repositories = new ArrayList<RepositoryResponse>();
+        @Nullable String after = null;
+
+        do {
+            final var data = execute(USER_REPOSITORIES_QUERY, variables("login", username, "after", after));
+            final var owner = data.repositoryOwner();
+            if (owner == null) {
+                throw new GithubUserNotFoundException(username);
+            }
+
+            final var connection = owner.repositories();
+            connection.nodes().forEach(repository -> repositories.add(mapToRepositoryResponse(repository)));
+            after = nextCursor(connection.pageInfo());
+        } while (after != null);
+
+        return List.copyOf(repositories);
+    }
+
+    private RepositoryResponse mapToRepositoryResponse(final GithubGraphQlResponse.Repository repository) {
+        final var ownerLogin = repository.owner().login();
+        final var branches = new ArrayList<BranchResponse>();
+
+        var refs = repository.refs();
+        while (true) {
+            refs.nodes().forEach(ref -> branches.add(new BranchResponse(ref.name(), ref.target().oid())));
+
+            final var after = nextCursor(refs.pageInfo());
+            if (after == null) {
+                break;
+            }
+            refs = fetchMoreRefs(ownerLogin, repository.name(), after);
+        }
+
+        return new RepositoryResponse(repository.name(), ownerLogin, List.copyOf(branches));
+    }
+
+    private GithubGraphQlResponse.RefConnection fetchMoreRefs(final String owner, final String name, final String after) {
+        final var data = execute(REPOSITORY_REFS_QUERY, variables("owner", owner, "name", name, "after", after));
+        final var repository = data.repository();
+        if (repository == null) {
+            throw new IllegalStateException("GitHub GraphQL returned no repository %s/%s".formatted(owner, name));
+        }
+        return repository.refs();
+    }
+
+    private GithubGraphQlResponse.Data execute(final String query, final Map<String, @Nullable Object> variables) {
+        final var response = concurrencyLimiter.call(
+                () -> githubGraphQlApi.query(new GithubGraphQlRequest(query, variables))
+        );
+
+        final var errors = response.errors();
+        final var data = response.data();
+        if (data == null || (errors != null && !errors.isEmpty() && !onlyNotFound(errors))) {
+            throw new IllegalStateException("GitHub GraphQL query failed: " + errors);
+        }
+        return data;
+    }
+
+    private static boolean onlyNotFound(final List<GithubGraphQlResponse.Error> errors) {
+        return errors.stream().allMatch(error -> "NOT_FOUND".equals(error.type()));
+    }
+
+    private static @Nullable String nextCursor(final GithubGraphQlResponse.PageInfo pageInfo) {
+        return pageInfo.hasNextPage() ? pageInfo.endCursor() : null;
+    }
+
+    private static Map<String, @Nullable Object> variables(final @Nullable Object... namesAndValues) {
+        final var variables = new HashMap<String, @Nullable Object>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            variables.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return variables;
+    }
+}
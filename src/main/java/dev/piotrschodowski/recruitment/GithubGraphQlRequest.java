@@ -0,0 +1,11 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.Map;
+
+public record GithubGraphQlRequest(
+        String query,
+        Map<String, @Nullable Object> variables
+) {
+}
@@ -0,0 +1,28 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+
+public record GithubGraphQlResponse(
+        @Nullable Data data,
+        @Nullable List<Error> errors
+) {
+    public record Data(@Nullable RepositoryOwner repositoryOwner, @Nullable Repository repository) {}
+
+    public record RepositoryOwner(RepositoryConnection repositories) {}
+
+    public record RepositoryConnection(PageInfo pageInfo, List<Repository> nodes) {}
+
+    public record Repository(String name, GithubRepo.Owner owner, RefConnection refs) {}
+
+    public record RefConnection(PageInfo pageInfo, List<Ref> nodes) {}
+
+    public record Ref(String name, Target target) {}
+
+    public record Target(String oid) {}
+
+    public record PageInfo(boolean hasNextPage, @Nullable String endCursor) {}
+
+    public record Error(@Nullable String type, String message) {}
+}
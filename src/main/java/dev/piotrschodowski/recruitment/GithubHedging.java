@@ -0,0 +1,110 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Hedged GitHub calls: once a call has been running for longer than the tracked percentile of its latency
+ * (but at least {@code min-delay}), an identical second call is sent and whichever finishes first wins; the
+ * other is cancelled. A call that finishes before the delay, successfully or not, never sends the duplicate,
+ * so at the default p95 hedging adds about 5% calls. Nothing is hedged before {@code min-samples} latencies
+ * were recorded.
+ * <p>
+ * The latency of every primary call is recorded, including calls cancelled because the duplicate won, which
+ * then count with their time until cancellation, so the percentile is not biased towards fast calls.
+ */
+@Component
+final class GithubHedging {
+
+    private final boolean enabled;
+    private final long minDelayNanos;
+    private final LatencyTracker latencies;
+    private final Counter sent;
+    private final Counter won;
+
+    GithubHedging(final HedgingProperties properties, final MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.minDelayNanos = properties.minDelay().toNanos();
+        this.latencies = new LatencyTracker(properties.percentile(), properties.minSamples());
+        this.sent = Counter.builder("github.hedging.calls")
+                .description("Duplicate GitHub calls sent for slow primaries, and how many of them won")
+                .tag("result", "sent")
+                .register(meterRegistry);
+        this.won = Counter.builder("github.hedging.calls")
+                .description("Duplicate GitHub calls sent for slow primaries, and how many of them won")
+                .tag("result", "won")
+                .register(meterRegistry);
+    }
+
+    <T> T call(final Supplier<T> call) {
+        final var threshold = latencies.percentileNanos();
+        if (!enabled || threshold < 0) {
+            return timed(call);
+        }
+
+        final var delay = Duration.ofNanos(Math.max(minDelayNanos, threshold));
+        try (var scope = StructuredTaskScope.open(new FirstCompleted<T>())) {
+            scope.fork(() -> timed(call));
+            final var hedge = scope.fork(() -> {
+                Thread.sleep(delay);
+                sent.increment();
+                return call.get();
+            });
+
+            final var winner = scope.join();
+            if (winner == hedge) {
+                won.increment();
+            }
+            if (winner.state() == StructuredTaskScope.Subtask.State.FAILED) {
+                throw winner.exception() instanceof RuntimeException cause
+                        ? cause
+                        : new IllegalStateException("Hedged GitHub call failed", winner.exception());
+            }
+            return winner.get();
+
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a hedged GitHub call", e);
+        }
+    }
+
+    private <T> T timed(final Supplier<T> call) {
+        final var startedAt = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            latencies.record(System.nanoTime() - startedAt);
+        }
+    }
+
+    /**
+     * Cancels the scope as soon as any subtask completes, successfully or not, and returns that subtask.
+     */
+    private static final class FirstCompleted<T>
+            implements StructuredTaskScope.Joiner<T, StructuredTaskScope.Subtask<? extends T>> {
+
+        private final AtomicReference<StructuredTaskScope.@Nullable Subtask<? extends T>> first = new AtomicReference<>();
+
+        @Override
+        public boolean onComplete(final StructuredTaskScope.Subtask<? extends T> subtask) {
+            first.compareAndSet(null, subtask);
+            return true;
+        }
+
+        @Override
+        public StructuredTaskScope.Subtask<? extends T> result() {
+            final var subtask = first.get();
+            if (subtask == null) {
+                throw new IllegalStateException("Hedged GitHub call completed without a result");
+            }
+            return subtask;
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package dev.piotrschodowski.recruitment;
 
 import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,11 +13,30 @@ import org.springframework.web.bind.annotation.PathVariable;
 public interface GithubHttpApi {
 
     @GetExchange("/users/{username}/repos")
-    @Nullable GithubRepo[] userRepos(@PathVariable("username") String username);
+    ResponseEntity<GithubRepo[]> userRepos(
+            @PathVariable("username") String username,
+            @RequestParam("per_page") int perPage,
+            @RequestParam("page") int page,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) @Nullable String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.IF_MODIFIED_SINCE, required = false) @Nullable String ifModifiedSince
+    );
 
     @GetExchange("/repos/{owner}/{repo}/branches")
-    @Nullable GithubBranch[] repoBranches(
+    ResponseEntity<GithubBranch[]> repoBranches(
+            @PathVariable("owner") String owner,
+            @PathVariable("repo") String repo,
+            @RequestParam("per_page") int perPage,
+            @RequestParam("page") int page,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) @Nullable String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.IF_MODIFIED_SINCE, required = false) @Nullable String ifModifiedSince
+    );
+
+    @GetExchange("/repos/{owner}/{repo}/branches/{branch}")
+    ResponseEntity<GithubBranch> repoBranch(
             @PathVariable("owner") String owner,
-            @PathVariable("repo") String repo
+            @PathVariable("repo") String repo,
+            @PathVariable("branch") String branch,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) @Nullable String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.IF_MODIFIED_SINCE, required = false) @Nullable String ifModifiedSince
     );
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.regex.Pattern;
+
+final class GithubLinkHeader {
+
+    private static final Pattern LINK_PART = Pattern.compile("<([^>]*)>\\s*;\\s*rel=\"([^\"]*)\"");
+    private static final Pattern PAGE_PARAM = Pattern.compile("[?&]page=(\\d+)");
+
+    private GithubLinkHeader() {
+    }
+
+    static int lastPage(final @Nullable String link) {
+        if (link == null) {
+            return 1;
+        }
+
+        final var parts = LINK_PART.matcher(link);
+        while (parts.find()) {
+            if (!"last".equals(parts.group(2))) {
+                continue;
+            }
+            final var page = PAGE_PARAM.matcher(parts.group(1));
+            return page.find() ? Integer.parseInt(page.group(1)) : 1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,198 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Meters of the GitHub call path. Upstream calls made while a request is being served are counted through a
+ * {@link ScopedValue}, which {@code StructuredTaskScope} subtasks inherit, so the per-request cost includes
+ * the whole fan-out without any per-call map lookups.
+ */
+@Component
+final class GithubMetrics implements ClientHttpRequestInterceptor {
+
+    private static final ScopedValue<LongAdder> UPSTREAM_CALLS = ScopedValue.newInstance();
+
+    private static final List<EndpointTemplate> ENDPOINT_TEMPLATES = List.of(
+            new EndpointTemplate(Pattern.compile("/users/[^/]+/repos"), "/users/{username}/repos"),
+            new EndpointTemplate(Pattern.compile("/repos/[^/]+/[^/]+/branches"), "/repos/{owner}/{repo}/branches"),
+            new EndpointTemplate(Pattern.compile("/repos/[^/]+/[^/]+/branches/.+"), "/repos/{owner}/{repo}/branches/{branch}"),
+            new EndpointTemplate(Pattern.compile("/graphql"), "/graphql")
+    );
+
+    private final Meter.MeterProvider<Timer> upstreamTimers;
+    private final Meter.MeterProvider<DistributionSummary> upstreamBytes;
+    private final DistributionSummary fanOutWidth;
+    private final DistributionSummary upstreamCallsPerRequest;
+    private final AtomicInteger subtasksInFlight = new AtomicInteger();
+
+    GithubMetrics(final MeterRegistry meterRegistry) {
+        this.upstreamTimers = Timer.builder("github.upstream.requests")
+                .description("Latency of GitHub API calls per endpoint template")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.upstreamBytes = DistributionSummary.builder("github.upstream.response.bytes")
+                .description("Bytes read from GitHub response bodies per endpoint template")
+                .baseUnit("bytes")
+                .withRegistry(meterRegistry);
+        this.fanOutWidth = DistributionSummary.builder("github.fanout.width")
+                .description("Branch fetch subtasks forked per request")
+                .register(meterRegistry);
+        this.upstreamCallsPerRequest = DistributionSummary.builder("github.upstream.calls.per.request")
+                .description("GitHub calls made to serve one proxy request")
+                .register(meterRegistry);
+        Gauge.builder("github.fanout.subtasks.in-flight", subtasksInFlight, AtomicInteger::get)
+                .description("Branch fetch subtasks currently running")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(
+            final HttpRequest request,
+            final byte[] body,
+            final ClientHttpRequestExecution execution
+    ) throws IOException {
+        if (UPSTREAM_CALLS.isBound()) {
+            UPSTREAM_CALLS.get().increment();
+        }
+
+        final var endpoint = endpointTemplate(request.getURI().getPath());
+        final var startedAt = System.nanoTime();
+        var status = "IO_ERROR";
+        try {
+            final var response = execution.execute(request, body);
+            status = String.valueOf(response.getStatusCode().value());
+            return new CountingClientHttpResponse(response, upstreamBytes.withTags("endpoint", endpoint));
+        } finally {
+            upstreamTimers.withTags("endpoint", endpoint, "status", status)
+                    .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    <T> T measureRequestCost(final Supplier<T> request) {
+        final var calls = new LongAdder();
+        try {
+            return countUpstreamCalls(calls, request);
+        } finally {
+            recordRequestCost(calls);
+        }
+    }
+
+    <T> T countUpstreamCalls(final LongAdder calls, final Supplier<T> work) {
+        return ScopedValue.where(UPSTREAM_CALLS, calls).call(work::get);
+    }
+
+    void recordRequestCost(final LongAdder calls) {
+        upstreamCallsPerRequest.record(calls.sum());
+    }
+
+    void recordFanOut(final int width) {
+        fanOutWidth.record(width);
+    }
+
+    <T> T trackSubtask(final SubtaskBody<T> subtask) throws InterruptedException {
+        subtasksInFlight.incrementAndGet();
+        try {
+            return subtask.run();
+        } finally {
+            subtasksInFlight.decrementAndGet();
+        }
+    }
+
+    private static String endpointTemplate(final String path) {
+        for (final var template : ENDPOINT_TEMPLATES) {
+            if (template.pattern().matcher(path).matches()) {
+                return template.template();
+            }
+        }
+        return "other";
+    }
+
+    @FunctionalInterface
+    interface SubtaskBody<T> {
+        T run() throws InterruptedException;
+    }
+
+    private record EndpointTemplate(Pattern pattern, String template) {
+    }
+
+    private static final class CountingClientHttpResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final DistributionSummary bytes;
+        private long bytesRead;
+        private boolean recorded;
+
+        CountingClientHttpResponse(final ClientHttpResponse delegate, final DistributionSummary bytes) {
+            this.delegate = delegate;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return new FilterInputStream(delegate.getBody()) {
+                @Override
+                public int read() throws IOException {
+                    final var value = super.read();
+                    if (value >= 0) {
+                        bytesRead++;
+                    }
+                    return value;
+                }
+
+                @Override
+                public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+                    final var count = super.read(buffer, offset, length);
+                    if (count > 0) {
+                        bytesRead += count;
+                    }
+                    return count;
+                }
+            };
+        }
+
+        @Override
+        public void close() {
+            if (!recorded) {
+                recorded = true;
+                bytes.record(bytesRead);
+            }
+            delegate.close();
+        }
+    }
+}
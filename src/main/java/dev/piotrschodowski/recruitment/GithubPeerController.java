@@ -0,0 +1,67 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Internal endpoints other replicas forward to. They answer from and apply webhooks to this replica's own cache
+ * without checking the ring again, so replicas whose views of the ring briefly disagree never forward in a loop.
+ * Forwarded webhooks keep GitHub's signature and are verified again here. Every call must carry the shared peer
+ * secret.
+ */
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "github.peers", name = "enabled", havingValue = "true")
+public class GithubPeerController {
+
+    private final GithubService githubService;
+    private final GithubPeers githubPeers;
+    private final GithubWebhookSignature signature;
+    private final GithubWebhookService githubWebhookService;
+
+    GithubPeerController(
+            final GithubService githubService,
+            final GithubPeers githubPeers,
+            final GithubWebhookSignature signature,
+            final GithubWebhookService githubWebhookService
+    ) {
+        this.githubService = githubService;
+        this.githubPeers = githubPeers;
+        this.signature = signature;
+        this.githubWebhookService = githubWebhookService;
+    }
+
+    @GetMapping(value = GithubPeers.PATH + "{username}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<RepositoryResponse> ownedRepositories(
+            @RequestHeader(value = GithubPeers.SECRET_HEADER, required = false) final @Nullable String peerSecret,
+            @PathVariable final String username
+    ) {
+        githubPeers.authenticate(peerSecret);
+        return githubService.getOwnedUserRepositoriesWithBranches(username);
+    }
+
+    @PostMapping(GithubPeers.WEBHOOK_PATH)
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void ownedWebhook(
+            @RequestHeader(value = GithubPeers.SECRET_HEADER, required = false) final @Nullable String peerSecret,
+            @RequestHeader(GithubWebhookController.EVENT_HEADER) final String event,
+            @RequestHeader(value = GithubWebhookController.SIGNATURE_HEADER, required = false) final @Nullable String hubSignature,
+            @RequestBody final byte[] payload
+    ) {
+        githubPeers.authenticate(peerSecret);
+        signature.verify(hubSignature, payload);
+        githubWebhookService.handleOwned(event, payload);
+    }
+}
@@ -0,0 +1,359 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Shared cache tier across proxy replicas. Every username is owned by one replica, picked by a {@link PeerRing}
+ * over {@code github.peers.members} (or the addresses {@code dns-name} resolves to) plus this replica itself.
+ * Only the owner loads and caches a tree; the other replicas forward to its internal endpoint and keep the answer
+ * in a small near-cache for {@code near-cache-ttl}, so upstream traffic no longer grows with the replica count.
+ * <p>
+ * Concurrent forwards of one username share a single call. When the owner cannot be reached, or answers with
+ * something other than a tree or a GitHub error, the tree is loaded locally and only near-cached. Disabled by
+ * default, in which case this replica owns every username.
+ */
+@Component
+final class GithubPeers implements AutoCloseable {
+
+    static final String PATH = "/internal/peers/repositories/";
+    static final String WEBHOOK_PATH = "/internal/peers/webhooks";
+    static final String SECRET_HEADER = "X-Peer-Secret";
+
+    private static final Logger log = LoggerFactory.getLogger(GithubPeers.class);
+
+    private final PeerProperties properties;
+    private final ObjectMapper objectMapper;
+    private final RequestDeadlines requestDeadlines;
+    private final Cache<String, List<RepositoryResponse>> nearCache;
+    private final SingleFlight<String, List<RepositoryResponse>> forwards = new SingleFlight<>();
+    private final byte[] secret;
+    private final @Nullable ExecutorService executor;
+    private final @Nullable HttpClient httpClient;
+    private final Meter.MeterProvider<Counter> lookups;
+    private volatile Membership membership;
+
+    GithubPeers(
+            final PeerProperties properties,
+            final ObjectMapper objectMapper,
+            final RequestDeadlines requestDeadlines,
+            final MeterRegistry meterRegistry
+    ) {
+        if (properties.enabled() && properties.self().isBlank()) {
+            throw new IllegalStateException("github.peers.self must be set when github.peers.enabled=true");
+        }
+        if (properties.enabled() && properties.secret().isBlank()) {
+            throw new IllegalStateException("github.peers.secret must be set when github.peers.enabled=true");
+        }
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.requestDeadlines = requestDeadlines;
+        this.nearCache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.nearCacheTtl())
+                .maximumSize(properties.nearCacheMaxEntries())
+                .build();
+        this.secret = properties.secret().getBytes(StandardCharsets.UTF_8);
+        this.executor = properties.enabled() ? Executors.newVirtualThreadPerTaskExecutor() : null;
+        this.httpClient = executor != null
+                ? HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(properties.timeout())
+                        .executor(executor)
+                        .build()
+                : null;
+        this.membership = membership();
+
+        Gauge.builder("github.peers.members", this, peers -> peers.membership.ring().members().size())
+                .description("Replicas on the consistent-hash ring, this one included")
+                .register(meterRegistry);
+        this.lookups = Counter.builder("github.peers.lookups")
+                .description("Trees of usernames owned by another replica, by where they came from")
+                .withRegistry(meterRegistry);
+    }
+
+    boolean owns(final String username) {
+        final var current = membership;
+        return httpClient == null || current.ring().ownerOf(key(username)).equals(current.self());
+    }
+
+    /**
+     * Rejects calls to the internal endpoints that do not carry the shared {@code secret}, so clients cannot
+     * reach an owner directly and skip the ring and admission.
+     */
+    void authenticate(final @Nullable String providedSecret) {
+        if (providedSecret == null
+                || !MessageDigest.isEqual(secret, providedSecret.getBytes(StandardCharsets.UTF_8))) {
+            throw new InvalidPeerSecretException("Missing or wrong " + SECRET_HEADER + " header");
+        }
+    }
+
+    /**
+     * The near-cached tree of a username owned by another replica, or {@code null}.
+     */
+    @Nullable List<RepositoryResponse> peek(final String username) {
+        return nearCache.getIfPresent(key(username));
+    }
+
+    /**
+     * Fetches the tree of a username owned by another replica, loading it through {@code fallback} when the owner
+     * is unavailable. Trees are near-cached either way, never put into the {@link RepositoriesCache}.
+     */
+    List<RepositoryResponse> get(final String username, final Function<String, List<RepositoryResponse>> fallback) {
+        final var key = key(username);
+        final var near = nearCache.getIfPresent(key);
+        if (near != null) {
+            lookups.withTags("result", "near-cache").increment();
+            return near;
+        }
+
+        final var owner = membership.ring().ownerOf(key);
+        List<RepositoryResponse> repositories;
+        try {
+            repositories = forwards.execute(key, () -> forward(owner, username));
+            lookups.withTags("result", "forwarded").increment();
+        } catch (final PeerUnavailableException ex) {
+            log.warn("Could not fetch repositories of '{}' from peer {}, loading them locally", username, owner, ex);
+            lookups.withTags("result", "fallback").increment();
+            repositories = fallback.apply(username);
+        }
+        nearCache.put(key, repositories);
+        return repositories;
+    }
+
+    /**
+     * Hands a verified webhook delivery about {@code username} to its owner, which holds the only cached tree, and
+     * drops this replica's near-cached copy. Fails with {@link GithubUnavailableException} when the owner does not
+     * accept it, so GitHub records the delivery as failed and it can be redelivered.
+     */
+    void forwardWebhook(final String username, final String event, final @Nullable String signature, final byte[] payload) {
+        final var key = key(username);
+        nearCache.invalidate(key);
+
+        final var owner = membership.ring().ownerOf(key);
+        final var request = HttpRequest.newBuilder(URI.create(owner + WEBHOOK_PATH))
+                .timeout(properties.timeout())
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(SECRET_HEADER, properties.secret())
+                .header(GithubWebhookController.EVENT_HEADER, event);
+        if (signature != null) {
+            request.header(GithubWebhookController.SIGNATURE_HEADER, signature);
+        }
+
+        final int status;
+        try {
+            status = httpClient().send(request.POST(HttpRequest.BodyPublishers.ofByteArray(payload)).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (final IOException ex) {
+            log.warn("Could not forward a '{}' webhook delivery for '{}' to peer {}", event, username, owner, ex);
+            throw undelivered(owner, username);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while forwarding to peer " + owner, ex);
+        }
+        if (status / 100 != 2) {
+            log.warn("Peer {} answered {} to a '{}' webhook delivery for '{}'", owner, status, event, username);
+            throw undelivered(owner, username);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${github.peers.dns-refresh:30s}", fixedDelayString = "${github.peers.dns-refresh:30s}")
+    void refreshMembers() {
+        if (httpClient == null || properties.dnsName().isBlank()) {
+            return;
+        }
+
+        final var current = membership;
+        final var refreshed = membership();
+        if (!refreshed.self().equals(current.self()) || !refreshed.ring().members().equals(current.ring().members())) {
+            log.info("Peer ring changed from {} to {}, this replica is {}",
+                    current.ring().members(), refreshed.ring().members(), refreshed.self());
+            membership = refreshed;
+        }
+    }
+
+    private List<RepositoryResponse> forward(final String owner, final String username) {
+        final var remaining = requestDeadlines.remaining();
+        final var deadlineBound = remaining != null && remaining.compareTo(properties.timeout()) < 0;
+        final var request = HttpRequest.newBuilder(URI.create(owner + PATH + URLEncoder.encode(username, StandardCharsets.UTF_8)))
+                .timeout(deadlineBound ? remaining : properties.timeout())
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(SECRET_HEADER, properties.secret())
+                .GET()
+                .build();
+
+        final HttpResponse<InputStream> response;
+        try {
+            response = httpClient().send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (final HttpTimeoutException ex) {
+            if (deadlineBound) {
+                throw new GithubTimeoutException("Peer %s did not return repositories of '%s' within the request deadline"
+                        .formatted(owner, username));
+            }
+            throw new PeerUnavailableException(owner, ex);
+        } catch (final IOException ex) {
+            throw new PeerUnavailableException(owner, ex);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while forwarding to peer " + owner, ex);
+        }
+
+        try (InputStream body = decoded(response)) {
+            return switch (response.statusCode()) {
+                case 200 -> List.of(objectMapper.readValue(body, RepositoryResponse[].class));
+                case 404 -> throw new GithubUserNotFoundException(username);
+                case 503 -> throw new GithubUnavailableException(
+                        "GitHub is unavailable to peer " + owner, retryAfter(response));
+                case 504 -> throw new GithubTimeoutException(
+                        "Peer %s timed out loading repositories of '%s'".formatted(owner, username));
+                default -> throw new PeerUnavailableException(owner,
+                        new IllegalStateException("Unexpected status " + response.statusCode()));
+            };
+        } catch (final IOException | JacksonException ex) {
+            throw new PeerUnavailableException(owner, ex);
+        }
+    }
+
+    private HttpClient httpClient() {
+        if (httpClient == null) {
+            throw new IllegalStateException("Peers are disabled");
+        }
+        return httpClient;
+    }
+
+    /**
+     * The ring and this replica's place on it. Addresses {@code dns-name} resolves to are named
+     * {@code http://<address>:<dns-port>} by every replica, so when one of them is this replica it replaces the
+     * configured {@code self}; otherwise this replica would sit on the ring twice and own different keys in the
+     * eyes of its peers.
+     */
+    private Membership membership() {
+        var self = normalize(properties.self());
+        final var members = new HashSet<String>();
+        if (httpClient != null) {
+            properties.members().stream()
+                    .filter(member -> !member.isBlank())
+                    .map(GithubPeers::normalize)
+                    .forEach(members::add);
+        }
+        if (httpClient != null && !properties.dnsName().isBlank()) {
+            final var selfAddresses = addressesOf(URI.create(self).getHost());
+            try {
+                for (final var address : InetAddress.getAllByName(properties.dnsName())) {
+                    final var member = normalize("http://%s:%d".formatted(address.getHostAddress(), properties.dnsPort()));
+                    if (selfAddresses.contains(address) || isLocal(address)) {
+                        self = member;
+                    }
+                    members.add(member);
+                }
+            } catch (final UnknownHostException ex) {
+                log.warn("Could not resolve peers from {}, keeping the static members only", properties.dnsName(), ex);
+            }
+        }
+        members.add(self);
+        return new Membership(self, PeerRing.of(members, properties.virtualNodes()));
+    }
+
+    private static Set<InetAddress> addressesOf(final @Nullable String host) {
+        if (host == null) {
+            return Set.of();
+        }
+        try {
+            return Set.of(InetAddress.getAllByName(host));
+        } catch (final UnknownHostException ex) {
+            return Set.of();
+        }
+    }
+
+    private static boolean isLocal(final InetAddress address) {
+        try {
+            return NetworkInterface.getByInetAddress(address) != null;
+        } catch (final SocketException ex) {
+            return false;
+        }
+    }
+
+    private static GithubUnavailableException undelivered(final String owner, final String username) {
+        return new GithubUnavailableException(
+                "Peer %s did not accept a webhook delivery for '%s'".formatted(owner, username), Duration.ofSeconds(1));
+    }
+
+    private static InputStream decoded(final HttpResponse<InputStream> response) throws IOException {
+        final var encoding = response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse("");
+        return "gzip".equalsIgnoreCase(encoding) ? new GZIPInputStream(response.body()) : response.body();
+    }
+
+    private static Duration retryAfter(final HttpResponse<?> response) {
+        return response.headers().firstValue(HttpHeaders.RETRY_AFTER)
+                .map(String::trim)
+                .filter(value -> !value.isEmpty() && value.chars().allMatch(Character::isDigit))
+                .map(value -> Duration.ofSeconds(Long.parseLong(value)))
+                .orElse(Duration.ofSeconds(1));
+    }
+
+    private static String normalize(final String member) {
+        final var trimmed = member.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static String key(final String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    public void close() {
+        if (httpClient != null) {
+            httpClient.close();
+        }
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    private record Membership(String self, PeerRing ring) {
+    }
+
+    private static final class PeerUnavailableException extends RuntimeException {
+
+        PeerUnavailableException(final String peer, final Throwable cause) {
+            super("Peer " + peer + " is unavailable", cause);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.nio.channels.ClosedByInterruptException;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fails GitHub calls fast instead of sending requests that are bound to be rejected: while the
+ * {@code X-RateLimit-Remaining} budget is at or below the reserve until {@code X-RateLimit-Reset},
+ * while a {@code Retry-After} is pending, and while the circuit is open after repeated 5xx or transport
+ * failures. Once the open period ends a single trial call decides whether the circuit closes again. Calls
+ * cancelled on our side, by a lost hedge or an expired request deadline, are not failures.
+ * <p>
+ * With tokens configured, budgets and {@code Retry-After} are tracked per token by {@link GithubTokenPool},
+ * which also picks the token every call is sent with; the circuit breaker stays shared.
+ */
+@Component
+final class GithubRateLimitGovernor implements ClientHttpRequestInterceptor {
+
+    static final String RATE_LIMIT_REMAINING = "X-RateLimit-Remaining";
+    static final String RATE_LIMIT_RESET = "X-RateLimit-Reset";
+
+    private final RateLimitProperties properties;
+    private final GithubTokenPool tokenPool;
+    private final Clock clock;
+
+    private volatile long remaining = -1;
+    private volatile Instant resetAt = Instant.EPOCH;
+    private volatile Instant retryAfterUntil = Instant.EPOCH;
+    private volatile Instant circuitOpenUntil = Instant.EPOCH;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean trialInFlight = new AtomicBoolean();
+
+    @Autowired
+    GithubRateLimitGovernor(
+            final RateLimitProperties properties,
+            final GithubTokenPool tokenPool,
+            final MeterRegistry meterRegistry
+    ) {
+        this(properties, tokenPool, meterRegistry, Clock.systemUTC());
+    }
+
+    GithubRateLimitGovernor(
+            final RateLimitProperties properties,
+            final GithubTokenPool tokenPool,
+            final MeterRegistry meterRegistry,
+            final Clock clock
+    ) {
+        this.properties = properties;
+        this.tokenPool = tokenPool;
+        this.clock = clock;
+
+        Gauge.builder("github.rate-limit.remaining", this, GithubRateLimitGovernor::remaining)
+                .description("Last X-RateLimit-Remaining reported by GitHub (-1 when unknown)")
+                .register(meterRegistry);
+        Gauge.builder("github.circuit.open", this, governor -> governor.isCircuitOpen() ? 1 : 0)
+                .description("1 while the GitHub circuit breaker is open")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(
+            final HttpRequest request,
+            final byte[] body,
+            final ClientHttpRequestExecution execution
+    ) throws IOException {
+        final var permit = beforeCall();
+        final var authorization = permit.authorization();
+        if (authorization != null) {
+            request.getHeaders().set(HttpHeaders.AUTHORIZATION, authorization);
+        }
+
+        try {
+            final var response = execution.execute(request, body);
+            onResponse(permit, response.getStatusCode(), response.getHeaders());
+            return response;
+        } catch (final IOException | RuntimeException ex) {
+            if (!isCancellation(ex)) {
+                onFailure();
+            }
+            throw ex;
+        } finally {
+            afterCall(permit);
+        }
+    }
+
+    /**
+     * Time until calls may be sent again: the pending {@code Retry-After}, the rate-limit reset while the budget
+     * is at or below the reserve, and the open circuit, whichever ends last. Zero while nothing holds calls back.
+     */
+    Duration retryAfter() {
+        final var now = clock.instant();
+        var until = retryAfterUntil;
+        if (isBudgetExhausted() && resetAt.isAfter(until)) {
+            until = resetAt;
+        }
+        if (isCircuitOpen() && circuitOpenUntil.isAfter(until)) {
+            until = circuitOpenUntil;
+        }
+        final var retryAfter = until.isAfter(now) ? Duration.between(now, until) : Duration.ZERO;
+        final var tokenRetryAfter = tokenPool.retryAfter();
+        return tokenRetryAfter.compareTo(retryAfter) > 0 ? tokenRetryAfter : retryAfter;
+    }
+
+    /**
+     * Maps a {@code 429}, or a {@code 403} that GitHub sent because of a rate limit, to a
+     * {@link GithubUnavailableException}. Returns {@code null} for any other status, including {@code 403}s
+     * sent for other reasons (SAML enforcement, blocked repositories) while the budget is healthy.
+     */
+    @Nullable GithubUnavailableException rateLimited(final HttpStatusCode status) {
+        final var tooManyRequests = status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        if (!tooManyRequests && !status.isSameCodeAs(HttpStatus.FORBIDDEN)) {
+            return null;
+        }
+        final var retryAfter = retryAfter();
+        return tooManyRequests || !retryAfter.isZero()
+                ? new GithubUnavailableException("GitHub rate limit exceeded", retryAfter)
+                : null;
+    }
+
+    /**
+     * Last {@code X-RateLimit-Remaining} reported by GitHub, or {@code -1} before the first response carrying it.
+     */
+    long remaining() {
+        return tokenPool.isEmpty() ? remaining : tokenPool.remaining();
+    }
+
+    Duration untilReset() {
+        if (!tokenPool.isEmpty()) {
+            return tokenPool.untilReset();
+        }
+        final var now = clock.instant();
+        return resetAt.isAfter(now) ? Duration.between(now, resetAt) : Duration.ZERO;
+    }
+
+    /**
+     * Checks that a call may be sent now, failing fast otherwise, and picks the token to send it with. The
+     * returned permit must be handed back through {@link #afterCall}.
+     */
+    Permit beforeCall() {
+        final var now = clock.instant();
+
+        if (now.isBefore(retryAfterUntil)) {
+            throw unavailable("GitHub asked to retry later", retryAfterUntil, now);
+        }
+        if (isBudgetExhausted() && now.isBefore(resetAt)) {
+            throw unavailable("GitHub rate limit budget exhausted", resetAt, now);
+        }
+
+        var trial = false;
+        if (!circuitOpenUntil.equals(Instant.EPOCH)) {
+            if (now.isBefore(circuitOpenUntil)) {
+                throw unavailable("GitHub circuit breaker is open", circuitOpenUntil, now);
+            }
+            if (!trialInFlight.compareAndSet(false, true)) {
+                throw unavailable("GitHub circuit breaker is half-open", now.plusSeconds(1), now);
+            }
+            trial = true;
+        }
+
+        try {
+            return new Permit(trial, tokenPool.acquire());
+        } catch (final GithubUnavailableException ex) {
+            if (trial) {
+                trialInFlight.set(false);
+            }
+            throw ex;
+        }
+    }
+
+    void afterCall(final Permit permit) {
+        if (permit.token() != null) {
+            tokenPool.release(permit.token());
+        }
+        if (permit.trial()) {
+            trialInFlight.set(false);
+        }
+    }
+
+    void onResponse(final Permit permit, final HttpStatusCode status, final HttpHeaders headers) {
+        if (permit.token() != null) {
+            tokenPool.onResponse(permit.token(), status, headers);
+        } else {
+            trackBudget(headers);
+        }
+
+        if (status.is5xxServerError()) {
+            onFailure();
+        } else {
+            consecutiveFailures.set(0);
+            circuitOpenUntil = Instant.EPOCH;
+        }
+    }
+
+    private void trackBudget(final HttpHeaders headers) {
+        final var remainingHeader = headers.getFirst(RATE_LIMIT_REMAINING);
+        final var resetHeader = headers.getFirst(RATE_LIMIT_RESET);
+        if (remainingHeader != null && resetHeader != null) {
+            try {
+                final var reportedRemaining = Long.parseLong(remainingHeader.trim());
+                resetAt = Instant.ofEpochSecond(Long.parseLong(resetHeader.trim()));
+                remaining = reportedRemaining;
+            } catch (final NumberFormatException | DateTimeException ignored) {
+                // a malformed budget must not fail a call GitHub answered; keep the last known one
+            }
+        }
+
+        final var retryAfter = parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER), clock.instant());
+        if (retryAfter != null) {
+            retryAfterUntil = retryAfter;
+        }
+    }
+
+    void onFailure() {
+        if (consecutiveFailures.incrementAndGet() >= properties.circuitFailureThreshold()) {
+            circuitOpenUntil = clock.instant().plus(properties.circuitOpenDuration());
+        }
+    }
+
+    /**
+     * Whether a call failed because its thread was interrupted - a lost hedge or an expired request deadline
+     * cancelling the scope - rather than because GitHub could not be reached or answered. Read and connect
+     * timeouts are GitHub's doing and are not cancellations.
+     */
+    static boolean isCancellation(final Throwable ex) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (@Nullable Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException
+                    || cause instanceof CancellationException
+                    || cause instanceof ClosedByInterruptException
+                    || (cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isBudgetExhausted() {
+        final var budget = remaining;
+        return budget >= 0 && budget <= properties.reserve();
+    }
+
+    private boolean isCircuitOpen() {
+        return clock.instant().isBefore(circuitOpenUntil);
+    }
+
+    static @Nullable Instant parseRetryAfter(final @Nullable String value, final Instant now) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return now.plusSeconds(Long.parseLong(value.trim()));
+        } catch (final NumberFormatException ignored) {
+            try {
+                return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            } catch (final DateTimeParseException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Admission of one call: whether it is the trial of a half-open circuit, and the pooled token it is sent
+     * with, if any.
+     */
+    record Permit(
+            boolean trial,
+            GithubTokenPool.@Nullable Token token
+    ) {
+        @Nullable String authorization() {
+            return token == null ? null : token.authorization();
+        }
+    }
+
+    private static GithubUnavailableException unavailable(final String reason, final Instant until, final Instant now) {
+        return new GithubUnavailableException(reason, Duration.between(now, until));
+    }
+}
@@ -1,9 +1,13 @@
 package dev.piotrschodowski.recruitment;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.jspecify.annotations.Nullable;
+
 public record GithubRepo(
         String name,
         Owner owner,
-        boolean fork
+        boolean fork,
+        @JsonProperty("default_branch") @Nullable String defaultBranch
 ) {
     public record Owner(String login) {}
 }
@@ -2,10 +2,16 @@ package dev.piotrschodowski.recruitment;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.service.registry.ImportHttpServices;
 
 @SpringBootApplication
-@ImportHttpServices(group = "github", types = GithubHttpApi.class)
+@ConfigurationPropertiesScan
+@EnableScheduling
+@ImportRuntimeHints(GithubRuntimeHints.class)
+@ImportHttpServices(group = "github", types = {GithubHttpApi.class, GithubGraphQlApi.class})
 public class GithubReposProxyApplication {
 
     static void main(String[] args) {
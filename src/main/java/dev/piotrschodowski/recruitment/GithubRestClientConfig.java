@@ -1,23 +1,98 @@
 package dev.piotrschodowski.recruitment;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
+import org.springframework.web.client.support.RestClientHttpServiceGroupConfigurer;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 class GithubRestClientConfig {
 
+    static final String GITHUB_GROUP = "github";
+
+    private final GithubStreamingJsonConverter streamingJsonConverter;
+
+    GithubRestClientConfig(final ObjectMapper objectMapper) {
+        this.streamingJsonConverter = new GithubStreamingJsonConverter(objectMapper);
+    }
+
+    /**
+     * Runs the client's response handling. Not a default candidate, so it neither replaces Spring Boot's
+     * {@code applicationTaskExecutor} nor gets injected anywhere by type; it is closed after the client.
+     */
+    @Bean(destroyMethod = "close", defaultCandidate = false)
+    ExecutorService githubHttpExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * The JDK client has no per-client connection pool settings: its pool size and keep-alive only come from the
+     * JVM-wide {@code jdk.httpclient.connectionPoolSize} and {@code jdk.httpclient.keepalive.timeout} system
+     * properties, read once when the first client in the JVM is built. They are left to {@code -D} flags; the
+     * number of concurrent GitHub calls is bounded by {@link AdaptiveConcurrencyLimiter} instead.
+     */
+    @Bean(destroyMethod = "close")
+    HttpClient githubHttpClient(
+            GithubTransportProperties properties,
+            @Qualifier("githubHttpExecutor") ExecutorService githubHttpExecutor
+    ) {
+        return HttpClient.newBuilder()
+                .version(properties.version())
+                .connectTimeout(properties.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(githubHttpExecutor)
+                .build();
+    }
+
+    @Bean
+    JdkClientHttpRequestFactory githubRequestFactory(HttpClient githubHttpClient, GithubTransportProperties properties) {
+        final var requestFactory = new JdkClientHttpRequestFactory(githubHttpClient);
+        requestFactory.setReadTimeout(properties.readTimeout());
+        return requestFactory;
+    }
+
     @Bean
     RestClient githubRestClient(
             RestClient.Builder builder,
+            JdkClientHttpRequestFactory githubRequestFactory,
+            GithubRateLimitGovernor rateLimitGovernor,
+            GithubMetrics githubMetrics,
             @Value("${github.api.base-url}") String githubApiBaseUrl
     ) {
         return builder
                 .baseUrl(githubApiBaseUrl)
+                .requestFactory(githubRequestFactory)
                 .defaultHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                .requestInterceptor(rateLimitGovernor)
+                .requestInterceptor(githubMetrics)
+                .messageConverters(converters -> converters.addFirst(streamingJsonConverter))
                 .build();
     }
-}
\ No newline at end of file
+
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    RestClientHttpServiceGroupConfigurer githubHttpServiceGroupConfigurer(
+            JdkClientHttpRequestFactory githubRequestFactory,
+            GithubRateLimitGovernor rateLimitGovernor,
+            GithubMetrics githubMetrics
+    ) {
+        return groups -> groups.filterByName(GITHUB_GROUP)
+                .forEachClient((group, builder) -> builder
+                        .requestFactory(githubRequestFactory)
+                        .requestInterceptor(rateLimitGovernor)
+                        .requestInterceptor(githubMetrics)
+                        .messageConverters(converters -> converters.addFirst(streamingJsonConverter)));
+    }
+}
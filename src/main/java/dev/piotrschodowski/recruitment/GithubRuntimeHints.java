@@ -0,0 +1,48 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import java.util.List;
+
+/**
+ * Hints for a GraalVM native image: the JDK proxies behind the HTTP service interfaces, and reflective
+ * (de)serialization of every type read from GitHub, written to clients or persisted in the snapshot.
+ */
+class GithubRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<Class<?>> HTTP_SERVICES = List.of(
+            GithubHttpApi.class,
+            GithubGraphQlApi.class,
+            ReactiveGithubHttpApi.class
+    );
+
+    private static final List<Class<?>> JSON_TYPES = List.of(
+            GithubRepo.class,
+            GithubBranch.class,
+            GithubGraphQlRequest.class,
+            GithubGraphQlResponse.class,
+            GithubWebhookEvent.class,
+            RepositoryResponse.class,
+            BranchResponse.class,
+            RepositoriesResponseV2.class,
+            BatchRepositoriesRequest.class,
+            BatchRepositoriesResult.class,
+            ErrorResponse.class,
+            SnapshotStore.Record.class
+    );
+
+    @Override
+    public void registerHints(final RuntimeHints hints, final @Nullable ClassLoader classLoader) {
+        for (final var service : HTTP_SERVICES) {
+            hints.proxies().registerJdkProxy(AopProxyUtils.completeJdkProxyInterfaces(service));
+            hints.reflection().registerType(service, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        new BindingReflectionHintsRegistrar().registerReflectionHints(
+                hints.reflection(), JSON_TYPES.toArray(Class<?>[]::new));
+    }
+}
@@ -1,48 +1,247 @@
 package dev.piotrschodowski.recruitment;
 
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.StructuredTaskScope;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 final class GithubService {
 
     private final GithubClient githubClient;
+    private final GithubGraphQlClient githubGraphQlClient;
+    private final RepositoriesCache repositoriesCache;
+    private final HotUsernames hotUsernames;
+    private final GithubPeers githubPeers;
+    private final GithubMetrics githubMetrics;
+    private final RequestDeadlines requestDeadlines;
+    private final SingleFlight<String, List<RepositoryResponse>> userFlights = new SingleFlight<>();
+    private final int streamBufferSize;
+    private final int perRequestLimit;
+    private final GithubBackend backend;
 
-    GithubService(final GithubClient githubClient) {
+    GithubService(
+            final GithubClient githubClient,
+            final GithubGraphQlClient githubGraphQlClient,
+            final RepositoriesCache repositoriesCache,
+            final HotUsernames hotUsernames,
+            final GithubPeers githubPeers,
+            final GithubMetrics githubMetrics,
+            final RequestDeadlines requestDeadlines,
+            final FanOutProperties fanOutProperties,
+            @Value("${github.streaming.buffer-size:16}") final int streamBufferSize,
+            @Value("${github.backend:REST}") final GithubBackend backend
+    ) {
         this.githubClient = githubClient;
+        this.githubGraphQlClient = githubGraphQlClient;
+        this.repositoriesCache = repositoriesCache;
+        this.hotUsernames = hotUsernames;
+        this.githubPeers = githubPeers;
+        this.githubMetrics = githubMetrics;
+        this.requestDeadlines = requestDeadlines;
+        this.backend = backend;
+        this.perRequestLimit = fanOutProperties.perRequestLimit();
+        this.streamBufferSize = streamBufferSize;
     }
 
+    /**
+     * Answers from the replica that owns {@code username}: this one's cache, or the owner's through
+     * {@link GithubPeers}.
+     */
     List<RepositoryResponse> getUserRepositoriesWithBranches(final String username) {
-        final var nonForkRepos = githubClient.fetchUserRepositories(username).stream()
-                .filter(repo -> !repo.fork())
+        if (!githubPeers.owns(username)) {
+            return githubPeers.get(username, this::loadSharedUserRepositoriesWithBranches);
+        }
+        return getOwnedUserRepositoriesWithBranches(username);
+    }
+
+    List<RepositoryResponse> getOwnedUserRepositoriesWithBranches(final String username) {
+        return repositoriesCache.get(username, this::loadSharedUserRepositoriesWithBranches);
+    }
+
+    /**
+     * Answers a filtered request with as few upstream calls as the query allows: the name filter runs before any
+     * branch is fetched, {@code NONE} skips the branch fan-out and {@code DEFAULT} fetches one branch per repository.
+     * Cached trees answer {@code NONE} and {@code ALL} without calling GitHub. Filtered results are never cached.
+     * All GitHub calls made on behalf of the request share one {@link RequestDeadlines deadline}.
+     */
+    List<RepositoryResponse> getUserRepositories(final String username, final RepositoryQuery query) {
+        hotUsernames.record(username);
+        return requestDeadlines.withinRequestTimeout(() -> loadUserRepositories(username, query));
+    }
+
+    private List<RepositoryResponse> loadUserRepositories(final String username, final RepositoryQuery query) {
+        if (query.isUnfiltered()) {
+            return getUserRepositoriesWithBranches(username);
+        }
+
+        final var cached = peekUserRepositoriesWithBranches(username);
+        if (query.branches() != BranchSelection.DEFAULT) {
+            if (cached != null) {
+                return query.apply(cached);
+            }
+            if (query.branches() == BranchSelection.ALL && backend == GithubBackend.GRAPHQL) {
+                return query.apply(getUserRepositoriesWithBranches(username));
+            }
+        }
+
+        final var repositories = fetchNonForkRepositories(username).stream()
+                .filter(repository -> query.matches(repository.name()))
                 .toList();
 
-        if (nonForkRepos.isEmpty()) {
+        return switch (query.branches()) {
+            case NONE -> repositories.stream()
+                    .map(repository -> new RepositoryResponse(repository.name(), repository.owner().login(), List.of()))
+                    .toList();
+            case DEFAULT -> {
+                final Map<String, RepositoryResponse> cachedByName = cached == null
+                        ? Map.of()
+                        : cached.stream().collect(Collectors.toMap(
+                                RepositoryResponse::repositoryName, Function.identity(), (first, second) -> first));
+                yield fanOut(repositories,
+                        repository -> mapToDefaultBranchResponse(repository, cachedByName.get(repository.name())));
+            }
+            case ALL -> fanOut(repositories, this::mapToRepositoryResponse);
+        };
+    }
+
+    RepositoryStream streamUserRepositoriesWithBranches(final String username, final RepositoryQuery query) {
+        if (!query.isUnfiltered()) {
+            return getUserRepositories(username, query)::forEach;
+        }
+        hotUsernames.record(username);
+
+        final var cached = peekUserRepositoriesWithBranches(username);
+        if (cached != null) {
+            return cached::forEach;
+        }
+
+        // the body is written later on another thread, so the deadline is carried over explicitly
+        final var deadline = requestDeadlines.newDeadline();
+        if (backend == GithubBackend.GRAPHQL || !githubPeers.owns(username)) {
+            return requestDeadlines.within(deadline, () -> getUserRepositoriesWithBranches(username))::forEach;
+        }
+
+        final var nonForkRepos = requestDeadlines.within(deadline, () -> fetchNonForkRepositories(username));
+
+        return sink -> requestDeadlines.within(deadline, () -> {
+            final var permits = new Semaphore(perRequestLimit);
+            final var streamed = new HashMap<String, RepositoryResponse>();
+            githubMetrics.recordFanOut(nonForkRepos.size());
+            CompletionOrderFanOut.forEach(
+                    nonForkRepos,
+                    streamBufferSize,
+                    requestDeadlines.remaining(),
+                    repo -> withPermit(permits, repo, this::mapToRepositoryResponse),
+                    this::branchesTimedOut,
+                    repository -> {
+                        sink.accept(repository);
+                        streamed.put(repository.repositoryName(), repository);
+                    }
+            );
+            // once every repository is written, the tree is cached in listing order like a non-streamed load
+            repositoriesCache.put(username, nonForkRepos.stream()
+                    .map(repo -> streamed.get(repo.name()))
+                    .toList());
+            return null;
+        });
+    }
+
+    /**
+     * Loads the tree of {@code username} from GitHub and replaces the cached one, whatever its age. Validated
+     * bodies keep the reload cheap: unchanged lists and branches come back as {@code 304}s.
+     */
+    void refreshUserRepositories(final String username) {
+        repositoriesCache.put(username, loadSharedUserRepositoriesWithBranches(username));
+    }
+
+    private @Nullable List<RepositoryResponse> peekUserRepositoriesWithBranches(final String username) {
+        return githubPeers.owns(username) ? repositoriesCache.peek(username) : githubPeers.peek(username);
+    }
+
+    private List<RepositoryResponse> loadSharedUserRepositoriesWithBranches(final String username) {
+        return userFlights.execute(username, () -> loadUserRepositoriesWithBranches(username));
+    }
+
+    private List<RepositoryResponse> loadUserRepositoriesWithBranches(final String username) {
+        return switch (backend) {
+            case REST -> loadUserRepositoriesWithBranchesViaRest(username);
+            case GRAPHQL -> githubGraphQlClient.fetchUserRepositoriesWithBranches(username);
+        };
+    }
+
+    private List<RepositoryResponse> loadUserRepositoriesWithBranchesViaRest(final String username) {
+        return fanOut(fetchNonForkRepositories(username), this::mapToRepositoryResponse);
+    }
+
+    private List<RepositoryResponse> fanOut(
+            final List<GithubRepo> repositories,
+            final Function<GithubRepo, RepositoryResponse> mapper
+    ) {
+        if (repositories.isEmpty()) {
             return List.of();
         }
 
+        final var permits = new Semaphore(perRequestLimit);
+        githubMetrics.recordFanOut(repositories.size());
+
         try (var scope = StructuredTaskScope.open(
-                StructuredTaskScope.Joiner.<RepositoryResponse>allSuccessfulOrThrow()
+                new DeadlineJoiner<RepositoryResponse>(),
+                requestDeadlines::withRemainingTime
         )) {
-            final var tasks = nonForkRepos.stream()
-                    .map(repo -> scope.fork(() -> mapToRepositoryResponse(repo)))
-                    .toList();
+            repositories.forEach(repo -> scope.fork(() -> withPermit(permits, repo, mapper)));
 
-            scope.join();
+            final var results = scope.join();
 
-            return tasks.stream()
-                    .map(StructuredTaskScope.Subtask::get)
-                    .toList();
+            final var responses = new ArrayList<RepositoryResponse>(repositories.size());
+            for (int i = 0; i < repositories.size(); i++) {
+                final var result = results.get(i);
+                responses.add(result != null ? result : branchesTimedOut(repositories.get(i)));
+            }
+            return Collections.unmodifiableList(responses);
 
+        } catch (final StructuredTaskScope.FailedException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
         } catch (final InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new IllegalStateException("Interrupted while fetching branches from GitHub", e);
         }
     }
 
-    private RepositoryResponse mapToRepositoryResponse(final GithubRepo repository) {
+    private RepositoryResponse branchesTimedOut(final GithubRepo repository) {
+        return requestDeadlines.exceeded(repository.name(), repository.owner().login());
+    }
+
+    private List<GithubRepo> fetchNonForkRepositories(final String username) {
+        return githubClient.fetchUserRepositories(username).stream()
+                .filter(repo -> !repo.fork())
+                .toList();
+    }
+
+    private RepositoryResponse withPermit(
+            final Semaphore permits,
+            final GithubRepo repository,
+            final Function<GithubRepo, RepositoryResponse> mapper
+    ) throws InterruptedException {
+        permits.acquire();
+        try {
+            return githubMetrics.trackSubtask(() -> mapper.apply(repository));
+        } finally {
+            permits.release();
+        }
+    }
+
+    RepositoryResponse mapToRepositoryResponse(final GithubRepo repository) {
         final var ownerLogin = repository.owner().login();
 
         final var branches = githubClient.fetchRepositoryBranches(ownerLogin, repository.name()).stream()
@@ -52,7 +251,39 @@ final class GithubService {
         return new RepositoryResponse(repository.name(), ownerLogin, branches);
     }
 
+    private RepositoryResponse mapToDefaultBranchResponse(
+            final GithubRepo repository,
+            final @Nullable RepositoryResponse cached
+    ) {
+        final var ownerLogin = repository.owner().login();
+        final var defaultBranch = repository.defaultBranch();
+        if (defaultBranch == null) {
+            return new RepositoryResponse(repository.name(), ownerLogin, List.of());
+        }
+
+        if (cached != null) {
+            final var cachedBranch = cached.branches().stream()
+                    .filter(branch -> branch.name().equals(defaultBranch))
+                    .toList();
+            if (!cachedBranch.isEmpty()) {
+                return new RepositoryResponse(repository.name(), ownerLogin, cachedBranch);
+            }
+        }
+
+        final var branch = githubClient.fetchRepositoryBranch(ownerLogin, repository.name(), defaultBranch);
+        return new RepositoryResponse(
+                repository.name(),
+                ownerLogin,
+                branch == null ? List.of() : List.of(mapToBranchResponse(branch))
+        );
+    }
+
     private BranchResponse mapToBranchResponse(final GithubBranch branch) {
         return new BranchResponse(branch.name(), branch.commit().sha());
     }
+
+    @FunctionalInterface
+    interface RepositoryStream {
+        void forEach(Consumer<? super RepositoryResponse> sink);
+    }
 }
\ No newline at end of file
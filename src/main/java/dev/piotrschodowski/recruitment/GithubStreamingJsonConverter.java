@@ -0,0 +1,153 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads GitHub repository and branch lists straight from the response stream, keeping only the fields the
+ * proxy uses and skipping every other subtree without materializing it. Fork repositories are dropped while
+ * parsing, so no {@link GithubRepo} is ever built for them.
+ * <p>
+ * Not a bean: it is only added to the GitHub clients by {@link GithubRestClientConfig}, so it never ends up
+ * among the converters of the proxy's own endpoints. It only reads.
+ */
+final class GithubStreamingJsonConverter implements HttpMessageConverter<Object> {
+
+    private static final List<MediaType> SUPPORTED_MEDIA_TYPES =
+            List.of(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+
+    private final ObjectMapper objectMapper;
+
+    GithubStreamingJsonConverter(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean canRead(final Class<?> clazz, final @Nullable MediaType mediaType) {
+        return (clazz == GithubRepo[].class || clazz == GithubBranch[].class)
+                && (mediaType == null || SUPPORTED_MEDIA_TYPES.stream().anyMatch(supported -> supported.includes(mediaType)));
+    }
+
+    @Override
+    public boolean canWrite(final Class<?> clazz, final @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes() {
+        return SUPPORTED_MEDIA_TYPES;
+    }
+
+    @Override
+    public Object read(final Class<?> clazz, final HttpInputMessage inputMessage) throws IOException {
+        try {
+            return clazz == GithubRepo[].class
+                    ? readNonForkRepositories(inputMessage.getBody())
+                    : readBranches(inputMessage.getBody());
+        } catch (final JacksonException | IllegalStateException ex) {
+            throw new HttpMessageNotReadableException("Malformed GitHub response: " + ex.getMessage(), ex, inputMessage);
+        }
+    }
+
+    @Override
+    public void write(final Object value, final @Nullable MediaType contentType, final HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException("GitHub payloads are read-only");
+    }
+
+    GithubRepo[] readNonForkRepositories(final InputStream body) {
+        final var repositories = new ArrayList<GithubRepo>();
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            expectArray(parser);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                @Nullable String name = null;
+                @Nullable String ownerLogin = null;
+                @Nullable String defaultBranch = null;
+                var fork = false;
+
+                while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                    final var field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "name" -> name = parser.getString();
+                        case "fork" -> fork = parser.getBooleanValue();
+                        case "owner" -> ownerLogin = readNestedString(parser, "login");
+                        case "default_branch" -> defaultBranch = parser.getValueAsString();
+                        default -> parser.skipChildren();
+                    }
+                }
+
+                if (!fork && name != null && ownerLogin != null) {
+                    repositories.add(new GithubRepo(name, new GithubRepo.Owner(ownerLogin), false, defaultBranch));
+                }
+            }
+        }
+        return repositories.toArray(GithubRepo[]::new);
+    }
+
+    GithubBranch[] readBranches(final InputStream body) {
+        final var branches = new ArrayList<GithubBranch>();
+
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            expectArray(parser);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                @Nullable String name = null;
+                @Nullable String sha = null;
+
+                while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+                    final var field = parser.currentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "name" -> name = parser.getString();
+                        case "commit" -> sha = readNestedString(parser, "sha");
+                        default -> parser.skipChildren();
+                    }
+                }
+
+                if (name != null && sha != null) {
+                    branches.add(new GithubBranch(name, new GithubBranch.Commit(sha)));
+                }
+            }
+        }
+        return branches.toArray(GithubBranch[]::new);
+    }
+
+    private static @Nullable String readNestedString(final JsonParser parser, final String property) {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+
+        @Nullable String value = null;
+        while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+            final var field = parser.currentName();
+            parser.nextToken();
+            if (property.equals(field)) {
+                value = parser.getString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return value;
+    }
+
+    private static void expectArray(final JsonParser parser) {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalStateException("Expected a JSON array from GitHub but got " + parser.currentToken());
+        }
+    }
+}
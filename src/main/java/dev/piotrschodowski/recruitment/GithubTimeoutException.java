@@ -0,0 +1,8 @@
+package dev.piotrschodowski.recruitment;
+
+final class GithubTimeoutException extends RuntimeException {
+
+    GithubTimeoutException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,264 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Personal access or installation tokens for GitHub calls, each with its own rate-limit window. Every call takes
+ * the token with the most headroom: the last {@code X-RateLimit-Remaining} it reported minus its calls in
+ * flight, or {@code assumed-limit} while its window is unknown or over. Selection scans the tokens from a random
+ * offset without locking, and the window of a token is one {@link AtomicLong} that only moves forward, so
+ * responses arriving out of order never resurrect spent budget.
+ * <p>
+ * A token whose remaining budget is at or below {@code github.rate-limit.reserve} is parked until its
+ * {@code X-RateLimit-Reset}, one answered with {@code Retry-After} until then, and one GitHub rejects with
+ * {@code 401} for {@code invalid-token-backoff}. When every token is parked calls fail fast until the first
+ * one comes back. Without tokens the pool is empty and calls stay unauthenticated.
+ */
+@Component
+final class GithubTokenPool {
+
+    private static final Logger log = LoggerFactory.getLogger(GithubTokenPool.class);
+
+    private final Token[] tokens;
+    private final int reserve;
+    private final int assumedLimit;
+    private final Duration invalidTokenBackoff;
+    private final Clock clock;
+
+    GithubTokenPool(
+            final GithubAuthProperties properties,
+            final RateLimitProperties rateLimitProperties,
+            final MeterRegistry meterRegistry
+    ) {
+        this.tokens = properties.tokens().stream()
+                .filter(token -> !token.isBlank())
+                .map(String::trim)
+                .map(Token::new)
+                .toArray(Token[]::new);
+        this.reserve = rateLimitProperties.reserve();
+        this.assumedLimit = properties.assumedLimit();
+        this.invalidTokenBackoff = properties.invalidTokenBackoff();
+        this.clock = Clock.systemUTC();
+
+        for (int i = 0; i < tokens.length; i++) {
+            final var token = tokens[i];
+            Gauge.builder("github.tokens.remaining", token, candidate -> candidate.remaining(clock.millis()))
+                    .description("Last X-RateLimit-Remaining reported for a pooled GitHub token (-1 when unknown)")
+                    .tag("token", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+        Gauge.builder("github.tokens.parked", this, pool -> pool.parked(pool.clock.millis()))
+                .description("Pooled GitHub tokens waiting for their rate-limit window to reset")
+                .register(meterRegistry);
+    }
+
+    boolean isEmpty() {
+        return tokens.length == 0;
+    }
+
+    /**
+     * Takes the token with the most headroom for one call, or returns {@code null} when no tokens are configured.
+     * The token must be handed back through {@link #release}.
+     */
+    @Nullable Token acquire() {
+        if (tokens.length == 0) {
+            return null;
+        }
+
+        final var now = clock.millis();
+        final var offset = ThreadLocalRandom.current().nextInt(tokens.length);
+        Token best = null;
+        var bestHeadroom = Long.MIN_VALUE;
+        for (int i = 0; i < tokens.length; i++) {
+            final var token = tokens[(offset + i) % tokens.length];
+            final var headroom = token.headroom(now);
+            if (headroom > bestHeadroom) {
+                best = token;
+                bestHeadroom = headroom;
+            }
+        }
+
+        if (best == null) {
+            throw new GithubUnavailableException("All GitHub tokens are rate limited", retryAfter());
+        }
+        best.inFlight.incrementAndGet();
+        return best;
+    }
+
+    void release(final Token token) {
+        token.inFlight.decrementAndGet();
+    }
+
+    void onResponse(final Token token, final HttpStatusCode status, final HttpHeaders headers) {
+        final var now = clock.millis();
+
+        final var remaining = headers.getFirst(GithubRateLimitGovernor.RATE_LIMIT_REMAINING);
+        final var reset = headers.getFirst(GithubRateLimitGovernor.RATE_LIMIT_RESET);
+        if (remaining != null && reset != null) {
+            try {
+                token.observe(Long.parseLong(reset.trim()), Integer.parseInt(remaining.trim()));
+            } catch (final NumberFormatException ignored) {
+                // a malformed budget must not fail a call GitHub answered; keep the last known window
+            }
+        }
+
+        final var retryAfter = GithubRateLimitGovernor.parseRetryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER), clock.instant());
+        if (retryAfter != null) {
+            token.parkUntil(retryAfter.toEpochMilli());
+        }
+        if (status.isSameCodeAs(HttpStatus.UNAUTHORIZED)) {
+            log.warn("GitHub rejected pooled token #{}, parking it for {}", indexOf(token), invalidTokenBackoff);
+            token.parkUntil(now + invalidTokenBackoff.toMillis());
+        }
+    }
+
+    /**
+     * Sum of the budgets last reported by all tokens, or {@code -1} while none has reported one.
+     */
+    long remaining() {
+        final var now = clock.millis();
+        var total = -1L;
+        for (final var token : tokens) {
+            final var remaining = token.remaining(now);
+            if (remaining >= 0) {
+                total = Math.max(total, 0) + remaining;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Time until the last known window of any token resets.
+     */
+    Duration untilReset() {
+        final var now = clock.millis();
+        var latest = now;
+        for (final var token : tokens) {
+            final var window = token.window.get();
+            if (window != Token.UNKNOWN) {
+                latest = Math.max(latest, Token.resetOf(window) * 1000);
+            }
+        }
+        return Duration.ofMillis(latest - now);
+    }
+
+    /**
+     * Time until the first parked token can be used again, or zero while any token is usable.
+     */
+    Duration retryAfter() {
+        final var now = clock.millis();
+        var earliest = Long.MAX_VALUE;
+        for (final var token : tokens) {
+            final var availableAt = token.availableAt(now);
+            if (availableAt <= now) {
+                return Duration.ZERO;
+            }
+            earliest = Math.min(earliest, availableAt);
+        }
+        return earliest == Long.MAX_VALUE ? Duration.ZERO : Duration.ofMillis(earliest - now);
+    }
+
+    private int parked(final long now) {
+        var parked = 0;
+        for (final var token : tokens) {
+            if (token.availableAt(now) > now) {
+                parked++;
+            }
+        }
+        return parked;
+    }
+
+    private int indexOf(final Token token) {
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i] == token) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    final class Token {
+
+        private static final long UNKNOWN = -1;
+
+        private final String value;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        // reset epoch second in the high half, remaining calls in the low half
+        private final AtomicLong window = new AtomicLong(UNKNOWN);
+        private final AtomicLong parkedUntil = new AtomicLong();
+
+        private Token(final String value) {
+            this.value = value;
+        }
+
+        String authorization() {
+            return "Bearer " + value;
+        }
+
+        private long headroom(final long now) {
+            if (availableAt(now) > now) {
+                return Long.MIN_VALUE;
+            }
+            final var remaining = remaining(now);
+            return (remaining < 0 ? assumedLimit : remaining) - inFlight.get();
+        }
+
+        /**
+         * The reported budget, or {@code -1} when none was reported or its window is over.
+         */
+        private long remaining(final long now) {
+            final var current = window.get();
+            if (current == UNKNOWN || resetOf(current) * 1000 <= now) {
+                return -1;
+            }
+            return remainingOf(current);
+        }
+
+        private long availableAt(final long now) {
+            var availableAt = parkedUntil.get();
+            final var current = window.get();
+            if (current != UNKNOWN && remainingOf(current) <= reserve) {
+                availableAt = Math.max(availableAt, resetOf(current) * 1000);
+            }
+            return availableAt;
+        }
+
+        private void observe(final long resetEpochSecond, final int remaining) {
+            final var observed = (resetEpochSecond << 32) | (remaining & 0xFFFF_FFFFL);
+            window.accumulateAndGet(observed, (current, candidate) -> isNewer(candidate, current) ? candidate : current);
+        }
+
+        private void parkUntil(final long epochMilli) {
+            parkedUntil.accumulateAndGet(epochMilli, Math::max);
+        }
+
+        private static boolean isNewer(final long candidate, final long current) {
+            if (current == UNKNOWN || resetOf(candidate) != resetOf(current)) {
+                return current == UNKNOWN || resetOf(candidate) > resetOf(current);
+            }
+            return remainingOf(candidate) < remainingOf(current);
+        }
+
+        private static long resetOf(final long window) {
+            return window >>> 32;
+        }
+
+        private static int remainingOf(final long window) {
+            return (int) window;
+        }
+    }
+}
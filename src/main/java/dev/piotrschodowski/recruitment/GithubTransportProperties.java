@@ -0,0 +1,15 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+@ConfigurationProperties("github.http")
+record GithubTransportProperties(
+        @DefaultValue("HTTP_2") HttpClient.Version version,
+        @DefaultValue("2s") Duration connectTimeout,
+        @DefaultValue("10s") Duration readTimeout
+) {
+}
@@ -0,0 +1,17 @@
+package dev.piotrschodowski.recruitment;
+
+import java.time.Duration;
+
+final class GithubUnavailableException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    GithubUnavailableException(final String message, final Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    Duration retryAfter() {
+        return retryAfter;
+    }
+}
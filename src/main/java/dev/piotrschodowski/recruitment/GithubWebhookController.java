@@ -0,0 +1,35 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class GithubWebhookController {
+
+    static final String EVENT_HEADER = "X-GitHub-Event";
+    static final String SIGNATURE_HEADER = "X-Hub-Signature-256";
+
+    private final GithubWebhookSignature signature;
+    private final GithubWebhookService githubWebhookService;
+
+    GithubWebhookController(final GithubWebhookSignature signature, final GithubWebhookService githubWebhookService) {
+        this.signature = signature;
+        this.githubWebhookService = githubWebhookService;
+    }
+
+    @PostMapping("/webhooks/github")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void receiveGithubEvent(
+            @RequestHeader(EVENT_HEADER) final String event,
+            @RequestHeader(value = SIGNATURE_HEADER, required = false) final @Nullable String hubSignature,
+            @RequestBody final byte[] payload
+    ) {
+        signature.verify(hubSignature, payload);
+        githubWebhookService.handle(event, hubSignature, payload);
+    }
+}
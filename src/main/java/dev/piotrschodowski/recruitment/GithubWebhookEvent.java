@@ -0,0 +1,37 @@
+package dev.piotrschodowski.recruitment;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * The fields of GitHub {@code push}, {@code create}, {@code delete} and {@code repository} webhook payloads
+ * the proxy acts on.
+ */
+record GithubWebhookEvent(
+        @Nullable String ref,
+        @JsonProperty("ref_type") @Nullable String refType,
+        @Nullable String after,
+        boolean deleted,
+        @Nullable String action,
+        @Nullable Repository repository
+) {
+
+    record Repository(
+            String name,
+            GithubRepo.Owner owner,
+            boolean fork,
+            @JsonProperty("private") boolean isPrivate,
+            @JsonProperty("default_branch") @Nullable String defaultBranch
+    ) {
+        /**
+         * Only public, non-fork repositories are part of the cached trees.
+         */
+        boolean isListed() {
+            return !fork && !isPrivate;
+        }
+
+        GithubRepo toGithubRepo() {
+            return new GithubRepo(name, owner, fork, defaultBranch);
+        }
+    }
+}
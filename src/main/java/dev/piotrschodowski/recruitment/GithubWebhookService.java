@@ -0,0 +1,227 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Applies GitHub webhook events to cached repository trees: a push moves one branch head in place, branch
+ * creation refetches the branches of that repository only, branch deletion drops it, and any other change
+ * of a repository evicts its owner's tree. Events of forks and private repositories, which are never listed,
+ * and of users that are not cached are ignored, so inactive users cost nothing upstream.
+ * <p>
+ * With peers enabled only the owner of a username holds its tree, so deliveries about a username owned by
+ * another replica are forwarded to it through {@link GithubPeers}.
+ */
+@Service
+final class GithubWebhookService {
+
+    private static final Logger log = LoggerFactory.getLogger(GithubWebhookService.class);
+
+    private static final String BRANCH_REF_PREFIX = "refs/heads/";
+    private static final String BRANCH_REF_TYPE = "branch";
+    private static final Set<String> HANDLED_EVENTS = Set.of("push", "create", "delete", "repository");
+
+    private final GithubService githubService;
+    private final RepositoriesCache repositoriesCache;
+    private final GithubPeers githubPeers;
+    private final ObjectMapper objectMapper;
+    private final Meter.MeterProvider<Counter> events;
+
+    GithubWebhookService(
+            final GithubService githubService,
+            final RepositoriesCache repositoriesCache,
+            final GithubPeers githubPeers,
+            final ObjectMapper objectMapper,
+            final MeterRegistry meterRegistry
+    ) {
+        this.githubService = githubService;
+        this.repositoriesCache = repositoriesCache;
+        this.githubPeers = githubPeers;
+        this.objectMapper = objectMapper;
+        this.events = Counter.builder("github.webhooks")
+                .description("GitHub webhook deliveries by event and effect on the cache")
+                .withRegistry(meterRegistry);
+    }
+
+    /**
+     * Applies a verified delivery, or forwards it to the replica that owns the repository's owner.
+     */
+    Outcome handle(final String event, final @Nullable String signature, final byte[] payload) {
+        if (!HANDLED_EVENTS.contains(event)) {
+            return record(event, Outcome.IGNORED);
+        }
+
+        final var parsed = parse(payload);
+        final var repository = parsed.repository();
+        if (repository != null && !githubPeers.owns(repository.owner().login())) {
+            githubPeers.forwardWebhook(repository.owner().login(), event, signature, payload);
+            return record(event, Outcome.FORWARDED);
+        }
+        return record(event, apply(event, parsed));
+    }
+
+    /**
+     * Applies a verified delivery another replica forwarded, without checking the ring again.
+     */
+    Outcome handleOwned(final String event, final byte[] payload) {
+        return record(event, HANDLED_EVENTS.contains(event) ? apply(event, parse(payload)) : Outcome.IGNORED);
+    }
+
+    private Outcome record(final String event, final Outcome outcome) {
+        events.withTags("event", HANDLED_EVENTS.contains(event) ? event : "other", "outcome", outcome.tag())
+                .increment();
+        return outcome;
+    }
+
+    private Outcome apply(final String event, final GithubWebhookEvent payload) {
+        final var repository = payload.repository();
+        if (repository == null) {
+            return Outcome.IGNORED;
+        }
+
+        if (event.equals("repository")) {
+            return evict(repository);
+        }
+        if (!repository.isListed()) {
+            return Outcome.IGNORED;
+        }
+
+        return switch (event) {
+            case "push" -> onPush(repository, payload);
+            case "create" -> onCreate(repository, payload);
+            default -> onDelete(repository, payload);
+        };
+    }
+
+    private Outcome onPush(final GithubWebhookEvent.Repository repository, final GithubWebhookEvent payload) {
+        final var ref = payload.ref();
+        final var after = payload.after();
+        if (ref == null || !ref.startsWith(BRANCH_REF_PREFIX)) {
+            return Outcome.IGNORED;
+        }
+
+        final var branch = ref.substring(BRANCH_REF_PREFIX.length());
+        if (payload.deleted()) {
+            return updateBranches(repository, branches -> withoutBranch(branches, branch));
+        }
+        if (after == null) {
+            return Outcome.IGNORED;
+        }
+        return updateBranches(repository, branches -> withBranch(branches, new BranchResponse(branch, after)));
+    }
+
+    private Outcome onCreate(final GithubWebhookEvent.Repository repository, final GithubWebhookEvent payload) {
+        if (!BRANCH_REF_TYPE.equals(payload.refType()) || repositoriesCache.peek(repository.owner().login()) == null) {
+            return Outcome.IGNORED;
+        }
+
+        // create events carry no commit SHA, so the branches of this one repository are fetched again
+        final List<BranchResponse> branches;
+        try {
+            branches = githubService.mapToRepositoryResponse(repository.toGithubRepo()).branches();
+        } catch (final RuntimeException ex) {
+            log.warn("Could not refetch branches of {}/{} after a create event, evicting its owner",
+                    repository.owner().login(), repository.name(), ex);
+            return evict(repository);
+        }
+        return updateBranches(repository, ignored -> branches);
+    }
+
+    private Outcome onDelete(final GithubWebhookEvent.Repository repository, final GithubWebhookEvent payload) {
+        final var ref = payload.ref();
+        if (!BRANCH_REF_TYPE.equals(payload.refType()) || ref == null) {
+            return Outcome.IGNORED;
+        }
+        return updateBranches(repository, branches -> withoutBranch(branches, ref));
+    }
+
+    private Outcome updateBranches(final GithubWebhookEvent.Repository repository, final UnaryOperator<List<BranchResponse>> change) {
+        final var owner = repository.owner().login();
+        final var cached = repositoriesCache.peek(owner);
+        if (cached == null) {
+            return Outcome.IGNORED;
+        }
+        if (cached.stream().noneMatch(cachedRepository -> isSameRepository(cachedRepository, repository))) {
+            return evict(repository);
+        }
+
+        final var updated = repositoriesCache.update(owner, repositories -> repositories.stream()
+                .map(cachedRepository -> isSameRepository(cachedRepository, repository)
+                        ? new RepositoryResponse(
+                                cachedRepository.repositoryName(),
+                                cachedRepository.ownerLogin(),
+                                change.apply(cachedRepository.branches()))
+                        : cachedRepository)
+                .toList());
+        return updated ? Outcome.UPDATED : Outcome.IGNORED;
+    }
+
+    private Outcome evict(final GithubWebhookEvent.Repository repository) {
+        repositoriesCache.invalidate(repository.owner().login());
+        return Outcome.EVICTED;
+    }
+
+    private GithubWebhookEvent parse(final byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, GithubWebhookEvent.class);
+        } catch (final JacksonException ex) {
+            throw new InvalidWebhookPayloadException("Malformed GitHub webhook payload", ex);
+        }
+    }
+
+    private static boolean isSameRepository(final RepositoryResponse cached, final GithubWebhookEvent.Repository repository) {
+        return cached.repositoryName().equalsIgnoreCase(repository.name());
+    }
+
+    /**
+     * Replaces the branch with the same name, or inserts it keeping GitHub's alphabetical order.
+     */
+    private static List<BranchResponse> withBranch(final List<BranchResponse> branches, final BranchResponse branch) {
+        final var updated = new ArrayList<BranchResponse>(branches.size() + 1);
+        var replaced = false;
+
+        for (final var existing : branches) {
+            final var same = existing.name().equals(branch.name());
+            updated.add(same ? branch : existing);
+            replaced |= same;
+        }
+        if (!replaced) {
+            var index = 0;
+            while (index < updated.size() && updated.get(index).name().compareTo(branch.name()) < 0) {
+                index++;
+            }
+            updated.add(index, branch);
+        }
+        return List.copyOf(updated);
+    }
+
+    private static List<BranchResponse> withoutBranch(final List<BranchResponse> branches, final String name) {
+        return branches.stream()
+                .filter(branch -> !branch.name().equals(name))
+                .toList();
+    }
+
+    enum Outcome {
+        UPDATED,
+        EVICTED,
+        FORWARDED,
+        IGNORED;
+
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
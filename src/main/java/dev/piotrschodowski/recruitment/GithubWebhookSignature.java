@@ -0,0 +1,59 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Checks the {@code X-Hub-Signature-256} HMAC GitHub attaches to every webhook delivery. Without a configured
+ * {@code github.webhook.secret} every delivery is rejected.
+ */
+@Component
+final class GithubWebhookSignature {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String PREFIX = "sha256=";
+
+    private final @Nullable SecretKeySpec key;
+
+    GithubWebhookSignature(@Value("${github.webhook.secret:}") final String secret) {
+        this.key = secret.isEmpty() ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    void verify(final @Nullable String signature, final byte[] payload) {
+        if (key == null) {
+            throw new InvalidWebhookSignatureException("GitHub webhook secret is not configured");
+        }
+        if (signature == null || !signature.startsWith(PREFIX)) {
+            throw new InvalidWebhookSignatureException("Missing or malformed X-Hub-Signature-256 header");
+        }
+
+        final byte[] provided;
+        try {
+            provided = HexFormat.of().parseHex(signature, PREFIX.length(), signature.length());
+        } catch (final IllegalArgumentException ex) {
+            throw new InvalidWebhookSignatureException("Missing or malformed X-Hub-Signature-256 header");
+        }
+
+        if (!MessageDigest.isEqual(hmac(key, payload), provided)) {
+            throw new InvalidWebhookSignatureException("Webhook signature does not match the payload");
+        }
+    }
+
+    private static byte[] hmac(final SecretKeySpec key, final byte[] payload) {
+        try {
+            final var mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (final GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", ex);
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package dev.piotrschodowski.recruitment;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.time.Duration;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
@@ -13,4 +16,58 @@ public class GlobalExceptionHandler {
         final var body = new ErrorResponse(HttpStatus.NOT_FOUND.value(), ex.getMessage());
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
     }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(final InvalidRequestException ex) {
+        final var body = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+    }
+
+    @ExceptionHandler(InvalidWebhookPayloadException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidWebhookPayload(final InvalidWebhookPayloadException ex) {
+        final var body = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+    }
+
+    @ExceptionHandler(InvalidWebhookSignatureException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidWebhookSignature(final InvalidWebhookSignatureException ex) {
+        final var body = new ErrorResponse(HttpStatus.UNAUTHORIZED.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(body);
+    }
+
+    @ExceptionHandler(InvalidPeerSecretException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPeerSecret(final InvalidPeerSecretException ex) {
+        final var body = new ErrorResponse(HttpStatus.UNAUTHORIZED.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(body);
+    }
+
+    @ExceptionHandler(GithubTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleGithubTimeout(final GithubTimeoutException ex) {
+        final var body = new ErrorResponse(HttpStatus.GATEWAY_TIMEOUT.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(body);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(final TooManyRequestsException ex) {
+        final var body = new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(ex.retryAfter()))
+                .body(body);
+    }
+
+    @ExceptionHandler(GithubUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleGithubUnavailable(final GithubUnavailableException ex) {
+        final var body = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(ex.retryAfter()))
+                .body(body);
+    }
+
+    /**
+     * Whole seconds, rounded up so a client that waits exactly that long is not turned away again; at least 1.
+     */
+    static String retryAfterSeconds(final Duration retryAfter) {
+        final var seconds = retryAfter.getNano() == 0 ? retryAfter.getSeconds() : retryAfter.getSeconds() + 1;
+        return String.valueOf(Math.max(1, seconds));
+    }
 }
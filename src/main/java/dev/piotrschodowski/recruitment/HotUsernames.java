@@ -0,0 +1,243 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Space-Saving sketch of requested usernames. At most {@code tracked-usernames} counters are kept; when a new
+ * username arrives and all are taken, it replaces the smallest counter and inherits its count as the error
+ * bound. Any username receiving more than {@code 1 / tracked-usernames} of the requests is guaranteed to be
+ * tracked. {@link #decay()} halves every count so the ranking follows recent traffic.
+ * <p>
+ * Counters hang off a Stream-Summary list of buckets, one per distinct count in ascending order, so recording a
+ * username and finding the smallest counter are constant-time and the lock is only held for a few pointer moves.
+ * Nothing is recorded while prefetching is disabled.
+ */
+@Component
+final class HotUsernames {
+
+    private final boolean enabled;
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Counter> counters = new HashMap<>();
+    private @Nullable Bucket smallest;
+    private @Nullable Bucket largest;
+
+    HotUsernames(final PrefetchProperties properties, final MeterRegistry meterRegistry) {
+        if (properties.trackedUsernames() < 1) {
+            throw new IllegalStateException("github.prefetch.tracked-usernames must be at least 1");
+        }
+        this.enabled = properties.enabled();
+        this.capacity = properties.trackedUsernames();
+
+        Gauge.builder("github.prefetch.tracked", this, HotUsernames::size)
+                .description("Usernames currently tracked by the heavy-hitters sketch")
+                .register(meterRegistry);
+    }
+
+    void record(final String username) {
+        if (!enabled) {
+            return;
+        }
+
+        final var key = username.toLowerCase(Locale.ROOT);
+        lock.lock();
+        try {
+            var counter = counters.get(key);
+            if (counter == null) {
+                counter = track(key, username);
+            }
+            increment(counter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code k} usernames by estimated request count, highest first.
+     */
+    List<HotUsername> top(final int k) {
+        lock.lock();
+        try {
+            final var top = new ArrayList<HotUsername>(Math.min(k, counters.size()));
+            for (var bucket = largest; bucket != null && top.size() < k; bucket = bucket.previous) {
+                for (final var counter : bucket.counters) {
+                    if (top.size() == k) {
+                        break;
+                    }
+                    top.add(new HotUsername(counter.username, bucket.count, counter.error));
+                }
+            }
+            return top;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void decay() {
+        lock.lock();
+        try {
+            // halving keeps the ascending order of the buckets, it only merges neighbours
+            final var buckets = new ArrayList<Bucket>();
+            for (var bucket = smallest; bucket != null; bucket = bucket.next) {
+                buckets.add(bucket);
+            }
+
+            smallest = null;
+            largest = null;
+            for (final var bucket : buckets) {
+                final var count = bucket.count / 2;
+                for (final var counter : bucket.counters) {
+                    counter.error /= 2;
+                    if (count == 0) {
+                        counters.remove(counter.key);
+                        continue;
+                    }
+                    var halved = largest;
+                    if (halved == null || halved.count != count) {
+                        halved = new Bucket(count);
+                        linkAfter(halved, largest);
+                    }
+                    attach(counter, halved);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return counters.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a counter for an untracked username, in a bucket whose count is the counter's error, taking over the
+     * slot of the smallest counter once all are taken. The caller increments it right away.
+     */
+    private Counter track(final String key, final String username) {
+        final Bucket bucket;
+        final long error;
+        if (counters.size() < capacity) {
+            if (smallest == null || smallest.count != 0) {
+                linkAfter(new Bucket(0), null);
+            }
+            bucket = smallest;
+            error = 0;
+        } else {
+            bucket = smallest;
+            final var evicted = bucket.counters.getFirst();
+            bucket.counters.remove(evicted);
+            counters.remove(evicted.key);
+            error = bucket.count;
+        }
+
+        final var counter = new Counter(key, username, error);
+        counters.put(key, counter);
+        attach(counter, bucket);
+        return counter;
+    }
+
+    private void increment(final Counter counter) {
+        final var from = counter.bucket;
+        final var count = from.count + 1;
+        var to = from.next;
+        if (to == null || to.count != count) {
+            to = new Bucket(count);
+            linkAfter(to, from);
+        }
+
+        from.counters.remove(counter);
+        attach(counter, to);
+        if (from.counters.isEmpty()) {
+            unlink(from);
+        }
+    }
+
+    private static void attach(final Counter counter, final Bucket bucket) {
+        bucket.counters.add(counter);
+        counter.bucket = bucket;
+    }
+
+    /**
+     * Links {@code bucket} right after {@code previous}, or at the head of the list when it is {@code null}.
+     */
+    private void linkAfter(final Bucket bucket, final @Nullable Bucket previous) {
+        final var next = previous == null ? smallest : previous.next;
+        bucket.previous = previous;
+        bucket.next = next;
+        if (previous == null) {
+            smallest = bucket;
+        } else {
+            previous.next = bucket;
+        }
+        if (next == null) {
+            largest = bucket;
+        } else {
+            next.previous = bucket;
+        }
+    }
+
+    private void unlink(final Bucket bucket) {
+        if (bucket.previous == null) {
+            smallest = bucket.next;
+        } else {
+            bucket.previous.next = bucket.next;
+        }
+        if (bucket.next == null) {
+            largest = bucket.previous;
+        } else {
+            bucket.next.previous = bucket.previous;
+        }
+    }
+
+    /**
+     * An estimated request count; the true count lies between {@code count - error} and {@code count}.
+     */
+    record HotUsername(
+            String username,
+            long count,
+            long error
+    ) {
+    }
+
+    private static final class Bucket {
+
+        private final long count;
+        private final LinkedHashSet<Counter> counters = new LinkedHashSet<>();
+        private @Nullable Bucket previous;
+        private @Nullable Bucket next;
+
+        private Bucket(final long count) {
+            this.count = count;
+        }
+    }
+
+    private static final class Counter {
+
+        private final String key;
+        private final String username;
+        private long error;
+        private Bucket bucket;
+
+        private Counter(final String key, final String username, final long error) {
+            this.key = key;
+            this.username = username;
+            this.error = error;
+        }
+    }
+}
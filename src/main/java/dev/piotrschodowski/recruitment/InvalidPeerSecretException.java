@@ -0,0 +1,7 @@
+package dev.piotrschodowski.recruitment;
+
+final class InvalidPeerSecretException extends RuntimeException {
+    InvalidPeerSecretException(final String message) {
+        super(message);
+    }
+}
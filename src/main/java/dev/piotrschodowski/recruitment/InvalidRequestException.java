@@ -0,0 +1,7 @@
+package dev.piotrschodowski.recruitment;
+
+final class InvalidRequestException extends RuntimeException {
+    InvalidRequestException(final String message) {
+        super(message);
+    }
+}
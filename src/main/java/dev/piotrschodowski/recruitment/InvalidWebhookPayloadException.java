@@ -0,0 +1,7 @@
+package dev.piotrschodowski.recruitment;
+
+final class InvalidWebhookPayloadException extends RuntimeException {
+    InvalidWebhookPayloadException(final String message, final Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package dev.piotrschodowski.recruitment;
+
+final class InvalidWebhookSignatureException extends RuntimeException {
+    InvalidWebhookSignatureException(final String message) {
+        super(message);
+    }
+}
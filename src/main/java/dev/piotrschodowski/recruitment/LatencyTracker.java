@@ -0,0 +1,52 @@
+package dev.piotrschodowski.recruitment;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sliding window over the last {@value #WINDOW} latencies with one cached percentile. The percentile is
+ * recomputed by the recording thread every {@value #RECOMPUTE_EVERY} samples, so reading it is a volatile load.
+ */
+final class LatencyTracker {
+
+    private static final int WINDOW = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final double percentile;
+    private final int minSamples;
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+    private final AtomicLong recorded = new AtomicLong();
+    private volatile long percentileNanos = -1;
+
+    LatencyTracker(final double percentile, final int minSamples) {
+        this.percentile = percentile;
+        this.minSamples = Math.min(minSamples, WINDOW);
+    }
+
+    void record(final long nanos) {
+        final var index = recorded.getAndIncrement();
+        samples.set((int) (index % WINDOW), nanos);
+
+        final var count = index + 1;
+        if (count >= minSamples && count % RECOMPUTE_EVERY == 0) {
+            recompute((int) Math.min(count, WINDOW));
+        }
+    }
+
+    /**
+     * The tracked percentile in nanoseconds, or {@code -1} until {@code minSamples} latencies were recorded.
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recompute(final int size) {
+        final var sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        percentileNanos = sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+    }
+}
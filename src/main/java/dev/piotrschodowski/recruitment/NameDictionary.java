@@ -0,0 +1,33 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.function.Function;
+
+/**
+ * Bounded interner for names repeated across cached trees, such as {@code main} or an owner login. Once
+ * {@code maxSize} names are known, the least used ones are evicted, so names that become common later still get
+ * a shared instance. Trees compacted before an eviction keep referencing the evicted instance.
+ * <p>
+ * Eviction runs on the interning thread, which keeps the dictionary within {@code maxSize} at all times.
+ */
+final class NameDictionary {
+
+    private final Cache<String, String> names;
+
+    NameDictionary(final int maxSize) {
+        this.names = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    String intern(final String name) {
+        return names.get(name, Function.identity());
+    }
+
+    long size() {
+        return names.estimatedSize();
+    }
+}
@@ -0,0 +1,23 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigurationProperties("github.peers")
+record PeerProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("") String self,
+        @DefaultValue List<String> members,
+        @DefaultValue("") String dnsName,
+        @DefaultValue("8080") int dnsPort,
+        @DefaultValue("30s") Duration dnsRefresh,
+        @DefaultValue("128") int virtualNodes,
+        @DefaultValue("5s") Duration nearCacheTtl,
+        @DefaultValue("10000") int nearCacheMaxEntries,
+        @DefaultValue("2s") Duration timeout,
+        @DefaultValue("") String secret
+) {
+}
@@ -0,0 +1,74 @@
+package dev.piotrschodowski.recruitment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * Consistent-hash ring of proxy replicas. Every member is placed at {@code virtualNodes} points and a key belongs
+ * to the first point at or after its own hash, so adding or removing one replica only moves the keys it owned.
+ * Replicas that see the same member list build the same ring, whatever order they discovered it in.
+ */
+final class PeerRing {
+
+    private final Set<String> members;
+    private final long[] points;
+    private final String[] owners;
+
+    private PeerRing(final Set<String> members, final long[] points, final String[] owners) {
+        this.members = members;
+        this.points = points;
+        this.owners = owners;
+    }
+
+    static PeerRing of(final Collection<String> members, final int virtualNodes) {
+        final var sorted = new TreeSet<>(members);
+        final var placements = sorted.stream()
+                .flatMap(member -> IntStream.range(0, virtualNodes)
+                        .mapToObj(replica -> new Placement(hash(member + "#" + replica), member)))
+                .sorted(Comparator.comparingLong(Placement::point).thenComparing(Placement::member))
+                .toList();
+
+        final var points = new long[placements.size()];
+        final var owners = new String[placements.size()];
+        for (int i = 0; i < placements.size(); i++) {
+            points[i] = placements.get(i).point();
+            owners[i] = placements.get(i).member();
+        }
+        return new PeerRing(Set.copyOf(sorted), points, owners);
+    }
+
+    String ownerOf(final String key) {
+        final var index = Arrays.binarySearch(points, hash(key));
+        final var position = index >= 0 ? index : -index - 1;
+        return owners[position == points.length ? 0 : position];
+    }
+
+    Set<String> members() {
+        return members;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 mix so similar keys spread over the ring.
+     */
+    static long hash(final String value) {
+        var hash = 0xcbf29ce484222325L;
+        for (final var b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private record Placement(long point, String member) {
+    }
+}
@@ -0,0 +1,17 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("github.prefetch")
+record PrefetchProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("20") int topK,
+        @DefaultValue("1000") int trackedUsernames,
+        @DefaultValue("30s") Duration interval,
+        @DefaultValue("50s") Duration refreshAfter,
+        @DefaultValue("0.2") double budgetShare
+) {
+}
@@ -0,0 +1,14 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("github.rate-limit")
+record RateLimitProperties(
+        @DefaultValue("5") int reserve,
+        @DefaultValue("5") int circuitFailureThreshold,
+        @DefaultValue("30s") Duration circuitOpenDuration
+) {
+}
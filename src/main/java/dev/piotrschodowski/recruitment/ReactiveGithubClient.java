@@ -0,0 +1,94 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+
+/**
+ * Non-blocking counterpart of {@link GithubClient}: the same paging, conditional requests and rate-limit
+ * handling, with every page fetched as a {@link Mono} instead of on a blocked thread. Remaining pages are
+ * requested concurrently once the first page's {@code Link} header tells how many there are.
+ */
+@Component
+@Profile("reactive")
+final class ReactiveGithubClient {
+
+    private final ReactiveGithubHttpApi githubHttpApi;
+    private final GithubConditionalCache conditionalCache;
+    private final GithubRateLimitGovernor rateLimitGovernor;
+
+    ReactiveGithubClient(
+            final ReactiveGithubHttpApi githubHttpApi,
+            final GithubConditionalCache conditionalCache,
+            final GithubRateLimitGovernor rateLimitGovernor
+    ) {
+        this.githubHttpApi = githubHttpApi;
+        this.conditionalCache = conditionalCache;
+        this.rateLimitGovernor = rateLimitGovernor;
+    }
+
+    Flux<GithubRepo> fetchUserRepositories(final String username) {
+        return fetchAllPages(
+                "/users/%s/repos".formatted(username),
+                (page, ifNoneMatch, ifModifiedSince) ->
+                        githubHttpApi.userRepos(username, GithubClient.PER_PAGE, page, ifNoneMatch, ifModifiedSince)
+        ).onErrorMap(WebClientResponseException.class, ex -> ex.getStatusCode() == HttpStatus.NOT_FOUND
+                ? new GithubUserNotFoundException(username)
+                : handleRateLimitError(ex));
+    }
+
+    Flux<GithubBranch> fetchRepositoryBranches(final String ownerLogin, final String repositoryName) {
+        return fetchAllPages(
+                "/repos/%s/%s/branches".formatted(ownerLogin, repositoryName),
+                (page, ifNoneMatch, ifModifiedSince) ->
+                        githubHttpApi.repoBranches(ownerLogin, repositoryName, GithubClient.PER_PAGE, page, ifNoneMatch, ifModifiedSince)
+        ).onErrorMap(WebClientResponseException.class, this::handleRateLimitError);
+    }
+
+    private <T> Flux<T> fetchAllPages(final String resource, final PageCall<T[]> call) {
+        return fetchPage(resource, 1, call).flatMapMany(firstPage -> {
+            final var lastPage = GithubLinkHeader.lastPage(firstPage.link());
+            if (lastPage <= 1) {
+                return Flux.fromArray(firstPage.body());
+            }
+            return Flux.fromArray(firstPage.body()).concatWith(Flux.range(2, lastPage - 1)
+                    .flatMapSequential(page -> fetchPage(resource, page, call))
+                    .concatMapIterable(page -> Arrays.asList(page.body())));
+        });
+    }
+
+    private <T> Mono<GithubConditionalCache.CachedResponse<T>> fetchPage(
+            final String resource,
+            final int page,
+            final PageCall<T> call
+    ) {
+        final var pageResource = resource + "?page=" + page;
+
+        return Mono.defer(() -> {
+                    final GithubConditionalCache.Validators<T> validators = conditionalCache.validators(pageResource);
+                    return call.execute(page, validators.etag(), validators.lastModified())
+                            .map(response -> conditionalCache.accept(pageResource, response, validators));
+                })
+                .onErrorResume(GithubUnavailableException.class, ex -> {
+                    final GithubConditionalCache.CachedResponse<T> cached = conditionalCache.peek(pageResource);
+                    return cached == null ? Mono.error(ex) : Mono.just(cached);
+                });
+    }
+
+    private RuntimeException handleRateLimitError(final WebClientResponseException ex) {
+        final var rateLimited = rateLimitGovernor.rateLimited(ex.getStatusCode());
+        return rateLimited != null ? rateLimited : ex;
+    }
+
+    @FunctionalInterface
+    private interface PageCall<T> {
+        Mono<ResponseEntity<T>> execute(int page, @Nullable String ifNoneMatch, @Nullable String ifModifiedSince);
+    }
+}
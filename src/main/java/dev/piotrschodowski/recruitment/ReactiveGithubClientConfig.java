@@ -0,0 +1,64 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.support.WebClientHttpServiceGroupConfigurer;
+import org.springframework.web.service.registry.HttpServiceGroup;
+import org.springframework.web.service.registry.ImportHttpServices;
+import reactor.core.publisher.Mono;
+
+@Configuration
+@Profile("reactive")
+@ImportHttpServices(
+        group = ReactiveGithubClientConfig.GITHUB_REACTIVE_GROUP,
+        types = ReactiveGithubHttpApi.class,
+        clientType = HttpServiceGroup.ClientType.WEB_CLIENT
+)
+class ReactiveGithubClientConfig {
+
+    static final String GITHUB_REACTIVE_GROUP = "github-reactive";
+
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    WebClientHttpServiceGroupConfigurer reactiveGithubHttpServiceGroupConfigurer(
+            GithubRateLimitGovernor rateLimitGovernor,
+            @Value("${spring.http.serviceclient.github.base-url}") String githubApiBaseUrl
+    ) {
+        return groups -> groups.filterByName(GITHUB_REACTIVE_GROUP)
+                .forEachClient((group, builder) -> builder
+                        .baseUrl(githubApiBaseUrl)
+                        .filter(rateLimitFilter(rateLimitGovernor)));
+    }
+
+    /**
+     * Applies the same fail-fast rules as the blocking client's {@link GithubRateLimitGovernor} interceptor.
+     */
+    private static ExchangeFilterFunction rateLimitFilter(final GithubRateLimitGovernor rateLimitGovernor) {
+        return (request, next) -> Mono.defer(() -> {
+            final var permit = rateLimitGovernor.beforeCall();
+            final var authorization = permit.authorization();
+            final var authorized = authorization == null
+                    ? request
+                    : ClientRequest.from(request).header(HttpHeaders.AUTHORIZATION, authorization).build();
+
+            return next.exchange(authorized)
+                    .doOnNext(response -> rateLimitGovernor.onResponse(
+                            permit,
+                            response.statusCode(),
+                            response.headers().asHttpHeaders()))
+                    .doOnError(ex -> {
+                        if (!GithubRateLimitGovernor.isCancellation(ex)) {
+                            rateLimitGovernor.onFailure();
+                        }
+                    })
+                    .doFinally(signal -> rateLimitGovernor.afterCall(permit));
+        });
+    }
+}
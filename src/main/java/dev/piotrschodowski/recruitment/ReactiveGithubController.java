@@ -0,0 +1,39 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Repository endpoints of the {@code reactive} profile, served by WebFlux on top of {@link ReactiveGithubService}.
+ * Only the unfiltered v1 representation is offered; filters, projections, conditional requests, API version
+ * {@code 2.0} and batches remain served by {@link GithubController} in the default profile.
+ */
+@RestController
+@Profile("reactive")
+public class ReactiveGithubController {
+
+    private static final String USER_REPOSITORIES_ENDPOINT = "/users/{username}/repositories";
+
+    private final ReactiveGithubService githubService;
+
+    ReactiveGithubController(final ReactiveGithubService githubService) {
+        this.githubService = githubService;
+    }
+
+    @GetMapping(USER_REPOSITORIES_ENDPOINT)
+    public Mono<List<RepositoryResponse>> listUserNonForkRepositories(@PathVariable final String username) {
+        return githubService.getUserRepositoriesWithBranches(username);
+    }
+
+    @GetMapping(value = USER_REPOSITORIES_ENDPOINT, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RepositoryResponse> streamUserNonForkRepositories(@PathVariable final String username) {
+        return githubService.streamUserRepositoriesWithBranches(username);
+    }
+}
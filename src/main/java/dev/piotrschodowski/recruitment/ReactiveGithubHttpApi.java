@@ -0,0 +1,37 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.service.annotation.GetExchange;
+import org.springframework.web.service.annotation.HttpExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking twin of {@link GithubHttpApi}, backed by {@code WebClient} in the {@code reactive} profile.
+ */
+@HttpExchange(accept = "application/json")
+public interface ReactiveGithubHttpApi {
+
+    @GetExchange("/users/{username}/repos")
+    Mono<ResponseEntity<GithubRepo[]>> userRepos(
+            @PathVariable("username") String username,
+            @RequestParam("per_page") int perPage,
+            @RequestParam("page") int page,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) @Nullable String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.IF_MODIFIED_SINCE, required = false) @Nullable String ifModifiedSince
+    );
+
+    @GetExchange("/repos/{owner}/{repo}/branches")
+    Mono<ResponseEntity<GithubBranch[]>> repoBranches(
+            @PathVariable("owner") String owner,
+            @PathVariable("repo") String repo,
+            @RequestParam("per_page") int perPage,
+            @RequestParam("page") int page,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) @Nullable String ifNoneMatch,
+            @RequestHeader(name = HttpHeaders.IF_MODIFIED_SINCE, required = false) @Nullable String ifModifiedSince
+    );
+}
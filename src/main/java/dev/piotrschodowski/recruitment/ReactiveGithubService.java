@@ -0,0 +1,115 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The {@link GithubService} pipeline without blocked threads: branch lists of up to {@code per-request-limit}
+ * repositories are in flight at once as non-blocking calls, and results are assembled as they arrive. Trees are
+ * shared with the blocking pipeline through {@link RepositoriesCache}. The request deadline bounds the repository
+ * listing, which fails the request when missed, and every branch fetch, with the same partial-result rules.
+ */
+@Service
+@Profile("reactive")
+final class ReactiveGithubService {
+
+    private final ReactiveGithubClient githubClient;
+    private final RepositoriesCache repositoriesCache;
+    private final HotUsernames hotUsernames;
+    private final RequestDeadlines requestDeadlines;
+    private final int perRequestLimit;
+
+    ReactiveGithubService(
+            final ReactiveGithubClient githubClient,
+            final RepositoriesCache repositoriesCache,
+            final HotUsernames hotUsernames,
+            final RequestDeadlines requestDeadlines,
+            final FanOutProperties fanOutProperties
+    ) {
+        this.githubClient = githubClient;
+        this.repositoriesCache = repositoriesCache;
+        this.hotUsernames = hotUsernames;
+        this.requestDeadlines = requestDeadlines;
+        this.perRequestLimit = fanOutProperties.perRequestLimit();
+    }
+
+    /**
+     * The whole tree in GitHub's order, cached once complete.
+     */
+    Mono<List<RepositoryResponse>> getUserRepositoriesWithBranches(final String username) {
+        return Mono.defer(() -> {
+            hotUsernames.record(username);
+            final var cached = repositoriesCache.peek(username);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+
+            final var deadline = requestDeadlines.newDeadline();
+            return nonForkRepositories(username, deadline)
+                    .flatMapSequential(repository -> mapToRepositoryResponse(repository, deadline), perRequestLimit)
+                    .collectList()
+                    .map(List::copyOf)
+                    .doOnNext(repositories -> repositoriesCache.put(username, repositories));
+        });
+    }
+
+    /**
+     * Repositories in completion order, each emitted as soon as its branches arrive.
+     */
+    Flux<RepositoryResponse> streamUserRepositoriesWithBranches(final String username) {
+        return Flux.defer(() -> {
+            hotUsernames.record(username);
+            final var cached = repositoriesCache.peek(username);
+            if (cached != null) {
+                return Flux.fromIterable(cached);
+            }
+
+            final var deadline = requestDeadlines.newDeadline();
+            return nonForkRepositories(username, deadline)
+                    .flatMap(repository -> mapToRepositoryResponse(repository, deadline), perRequestLimit);
+        });
+    }
+
+    private Flux<GithubRepo> nonForkRepositories(final String username, final @Nullable Instant deadline) {
+        final var repositories = githubClient.fetchUserRepositories(username).filter(repository -> !repository.fork());
+        if (deadline == null) {
+            return repositories;
+        }
+        // pages arrive one after another, so every item restarts the timer with what is left until the deadline
+        return repositories.timeout(
+                Mono.delay(until(deadline)),
+                ignored -> Mono.delay(until(deadline)),
+                Flux.error(() -> new GithubTimeoutException(
+                        "GitHub did not return repositories of '%s' within the request deadline".formatted(username)))
+        );
+    }
+
+    private Mono<RepositoryResponse> mapToRepositoryResponse(final GithubRepo repository, final @Nullable Instant deadline) {
+        final var ownerLogin = repository.owner().login();
+
+        final var response = githubClient.fetchRepositoryBranches(ownerLogin, repository.name())
+                .map(branch -> new BranchResponse(branch.name(), branch.commit().sha()))
+                .collectList()
+                .map(branches -> new RepositoryResponse(repository.name(), ownerLogin, List.copyOf(branches)));
+
+        if (deadline == null) {
+            return response;
+        }
+        return response.timeout(
+                until(deadline),
+                Mono.fromCallable(() -> requestDeadlines.exceeded(repository.name(), ownerLogin))
+        );
+    }
+
+    private static Duration until(final Instant deadline) {
+        final var remaining = Duration.between(Instant.now(), deadline);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+}
@@ -0,0 +1,236 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Assembled repository trees per username. Entries older than {@code refresh-after} are still served
+ * while a single background refresh replaces them; entries older than {@code ttl} are dropped.
+ * The size bound is expressed in branch entries, so one huge account cannot look as cheap as a tiny one.
+ * <p>
+ * Trees are held as {@link CompactRepositories}, with SHAs packed into bytes and branch names and owner logins
+ * shared through a dictionary of at most {@code name-dictionary-size} names; every read rebuilds the records.
+ */
+@Component
+final class RepositoriesCache implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RepositoriesCache.class);
+
+    private final Cache<String, CachedRepositories> cache;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Duration refreshAfter;
+    private final NameDictionary names;
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refreshExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter refreshSuccesses;
+    private final Counter refreshFailures;
+    private final List<BiConsumer<String, List<RepositoryResponse>>> putListeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    RepositoriesCache(final RepositoriesCacheProperties properties, final MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    /**
+     * Load times are wall-clock instants from {@code clock}, since snapshots keep them across restarts; expiry
+     * is measured by {@code ticker}.
+     */
+    RepositoriesCache(
+            final RepositoriesCacheProperties properties,
+            final MeterRegistry meterRegistry,
+            final Clock clock,
+            final Ticker ticker
+    ) {
+        this.clock = clock;
+        this.ttl = properties.ttl();
+        this.refreshAfter = properties.refreshAfter();
+        this.names = new NameDictionary(properties.nameDictionarySize());
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(properties.ttl())
+                .maximumWeight(properties.maxWeight())
+                .weigher((String username, CachedRepositories entry) -> entry.weight())
+                .ticker(ticker)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "github.repositories");
+        Gauge.builder("github.repositories.cache.names", names, NameDictionary::size)
+                .description("Distinct branch names and owner logins shared by cached trees")
+                .register(meterRegistry);
+        this.refreshSuccesses = Counter.builder("github.repositories.cache.refreshes")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.refreshFailures = Counter.builder("github.repositories.cache.refreshes")
+                .tag("result", "failure")
+                .register(meterRegistry);
+    }
+
+    List<RepositoryResponse> get(final String username, final Function<String, List<RepositoryResponse>> loader) {
+        final var cached = cache.getIfPresent(key(username));
+
+        if (cached == null) {
+            final var repositories = loader.apply(username);
+            put(username, repositories);
+            return repositories;
+        }
+
+        if (cached.isOlderThan(refreshAfter, clock.instant())) {
+            refreshInBackground(username, loader);
+        }
+        return cached.repositories();
+    }
+
+    @Nullable List<RepositoryResponse> peek(final String username) {
+        final var cached = cache.getIfPresent(key(username));
+        return cached == null ? null : cached.repositories();
+    }
+
+    /**
+     * Repositories in the cached tree of {@code username}, or {@code -1} when it is not cached.
+     */
+    int repositoryCount(final String username) {
+        final var cached = cache.getIfPresent(key(username));
+        return cached == null ? -1 : cached.tree().repositoryCount();
+    }
+
+    @Nullable Instant loadedAt(final String username) {
+        final var cached = cache.getIfPresent(key(username));
+        return cached == null ? null : cached.loadedAt();
+    }
+
+    /**
+     * Stores a freshly loaded tree. Partial trees, with repositories whose branches missed a request deadline,
+     * are served to that request only and never stored.
+     */
+    void put(final String username, final List<RepositoryResponse> repositories) {
+        if (repositories.stream().anyMatch(RepositoryResponse::branchesTimedOut)) {
+            return;
+        }
+        cache.put(key(username), new CachedRepositories(CompactRepositories.of(repositories, names), clock.instant()));
+        putListeners.forEach(listener -> listener.accept(username, repositories));
+    }
+
+    /**
+     * Applies an incremental change to a cached tree, keeping its load time, and reports it like a fresh load.
+     * Returns {@code false} when the user is not cached, so there is nothing to update.
+     */
+    boolean update(final String username, final UnaryOperator<List<RepositoryResponse>> change) {
+        final var updated = cache.asMap().computeIfPresent(key(username),
+                (key, entry) -> new CachedRepositories(
+                        CompactRepositories.of(change.apply(entry.repositories()), names), entry.loadedAt()));
+        if (updated == null) {
+            return false;
+        }
+        putListeners.forEach(listener -> listener.accept(username, updated.repositories()));
+        return true;
+    }
+
+    /**
+     * Registers a callback run on the caller's thread after every fresh load; restored entries are not reported.
+     */
+    void onPut(final BiConsumer<String, List<RepositoryResponse>> listener) {
+        putListeners.add(listener);
+    }
+
+    /**
+     * Re-inserts a tree loaded earlier, keeping its original load time so it is served as stale and refreshed on
+     * first use. Entries past the TTL are ignored, and a newer entry already in the cache always wins.
+     */
+    void restore(final String username, final List<RepositoryResponse> repositories, final Instant loadedAt) {
+        final var restored = new CachedRepositories(CompactRepositories.of(repositories, names), loadedAt);
+        if (restored.isOlderThan(ttl, clock.instant())) {
+            return;
+        }
+        cache.asMap().merge(key(username), restored,
+                (current, candidate) -> current.loadedAt().isBefore(candidate.loadedAt()) ? candidate : current);
+    }
+
+    void forEach(final Visitor visitor) {
+        cache.asMap().forEach((username, entry) -> visitor.visit(username, entry.repositories(), entry.loadedAt()));
+    }
+
+    void invalidate(final String username) {
+        cache.invalidate(key(username));
+    }
+
+    void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private void refreshInBackground(final String username, final Function<String, List<RepositoryResponse>> loader) {
+        if (!refreshing.add(key(username))) {
+            return;
+        }
+
+        refreshExecutor.execute(() -> {
+            try {
+                put(username, loader.apply(username));
+                refreshSuccesses.increment();
+            } catch (final RuntimeException ex) {
+                refreshFailures.increment();
+                log.warn("Background refresh of repositories for '{}' failed, keeping stale entry", username, ex);
+            } finally {
+                refreshing.remove(key(username));
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * GitHub logins are case-insensitive, so {@code Octocat} and {@code octocat} share one entry.
+     */
+    private static String key(final String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        void visit(String username, List<RepositoryResponse> repositories, Instant loadedAt);
+    }
+
+    private record CachedRepositories(
+            CompactRepositories tree,
+            Instant loadedAt
+    ) {
+        List<RepositoryResponse> repositories() {
+            return tree.toResponses();
+        }
+
+        boolean isOlderThan(final Duration age, final Instant now) {
+            return loadedAt.plus(age).isBefore(now);
+        }
+
+        int weight() {
+            return 1 + tree.branchCount();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("github.cache.repositories")
+record RepositoriesCacheProperties(
+        @DefaultValue("10m") Duration ttl,
+        @DefaultValue("1m") Duration refreshAfter,
+        @DefaultValue("200000") long maxWeight,
+        @DefaultValue("50000") int nameDictionarySize
+) {
+}
@@ -0,0 +1,55 @@
+package dev.piotrschodowski.recruitment;
+
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Content hash of an assembled repository list, used as the proxy's own entity tag. The hash is 64-bit FNV-1a
+ * over the characters of every field, each followed by its length so field boundaries cannot shift, and is
+ * computed without serializing the list or allocating per field. The {@code variant} separates representations
+ * of the same list, such as API versions or field projections.
+ * <p>
+ * The tag is sent as a weak validator: it identifies the content, while the servlet container may still
+ * gzip the body, which it refuses to do for responses with a strong tag. {@code If-None-Match} compares
+ * tags weakly, so conditional polls are unaffected.
+ */
+final class RepositoriesETag {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private RepositoriesETag() {
+    }
+
+    static String of(final String variant, final List<RepositoryResponse> repositories) {
+        var hash = mix(FNV_OFFSET_BASIS, variant);
+        hash = mix(hash, repositories.size());
+
+        for (final var repository : repositories) {
+            hash = mix(hash, repository.repositoryName());
+            hash = mix(hash, repository.ownerLogin());
+            hash = mix(hash, repository.branchesTimedOut() ? -1 : repository.branches().size());
+            for (final var branch : repository.branches()) {
+                hash = mix(hash, branch.name());
+                hash = mix(hash, branch.lastCommitSha());
+            }
+        }
+        return "W/\"" + HexFormat.of().toHexDigits(hash) + "\"";
+    }
+
+    private static long mix(long hash, final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            final var c = value.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return mix(hash, value.length());
+    }
+
+    private static long mix(long hash, final int value) {
+        for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+            hash = (hash ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,42 @@
+package dev.piotrschodowski.recruitment;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Top-level fields of {@link RepositoryResponse} a client can select with {@code fields=}.
+ */
+enum RepositoryField {
+    REPOSITORY_NAME("repositoryName"),
+    OWNER_LOGIN("ownerLogin"),
+    BRANCHES("branches");
+
+    private final String jsonName;
+
+    RepositoryField(final String jsonName) {
+        this.jsonName = jsonName;
+    }
+
+    String jsonName() {
+        return jsonName;
+    }
+
+    static Set<RepositoryField> parse(final String fields) {
+        final var selected = EnumSet.noneOf(RepositoryField.class);
+        for (final var field : fields.split(",")) {
+            final var name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            selected.add(Arrays.stream(values())
+                    .filter(candidate -> candidate.jsonName.equals(name))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidRequestException("Unknown field '%s'".formatted(name))));
+        }
+        if (selected.isEmpty()) {
+            throw new InvalidRequestException("At least one field must be selected");
+        }
+        return selected;
+    }
+}
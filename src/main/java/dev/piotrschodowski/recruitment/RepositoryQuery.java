@@ -0,0 +1,63 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Server-side filters of a repositories request. The name filter is a case-insensitive glob
+ * ({@code *} and {@code ?}) and is applied before any branch is fetched.
+ */
+record RepositoryQuery(
+        @Nullable Pattern name,
+        BranchSelection branches
+) {
+
+    static final RepositoryQuery ALL = new RepositoryQuery(null, BranchSelection.ALL);
+
+    static RepositoryQuery of(final @Nullable String nameGlob, final BranchSelection branches) {
+        return new RepositoryQuery(nameGlob == null || nameGlob.isBlank() ? null : glob(nameGlob.trim()), branches);
+    }
+
+    boolean isUnfiltered() {
+        return name == null && branches == BranchSelection.ALL;
+    }
+
+    boolean matches(final String repositoryName) {
+        return name == null || name.matcher(repositoryName).matches();
+    }
+
+    /**
+     * Applies the query to an already assembled tree. {@code DEFAULT} cannot be answered from a tree,
+     * which does not know default branches, and is left to the caller.
+     */
+    List<RepositoryResponse> apply(final List<RepositoryResponse> repositories) {
+        return repositories.stream()
+                .filter(repository -> matches(repository.repositoryName()))
+                .map(repository -> branches == BranchSelection.NONE
+                        ? new RepositoryResponse(repository.repositoryName(), repository.ownerLogin(), List.of())
+                        : repository)
+                .toList();
+    }
+
+    private static Pattern glob(final String glob) {
+        final var regex = new StringBuilder(glob.length() + 8);
+        var literalStart = 0;
+
+        for (int i = 0; i < glob.length(); i++) {
+            final var c = glob.charAt(i);
+            if (c == '*' || c == '?') {
+                if (literalStart < i) {
+                    regex.append(Pattern.quote(glob.substring(literalStart, i)));
+                }
+                regex.append(c == '*' ? ".*" : ".");
+                literalStart = i + 1;
+            }
+        }
+        if (literalStart < glob.length()) {
+            regex.append(Pattern.quote(glob.substring(literalStart)));
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+}
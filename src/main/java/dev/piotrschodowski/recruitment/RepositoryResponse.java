@@ -1,9 +1,25 @@
 package dev.piotrschodowski.recruitment;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
+/**
+ * {@code branchesTimedOut} marks a repository whose branches did not arrive before the request deadline in
+ * partial-result mode; its {@code branches} are then empty. The flag is only serialized when set.
+ */
 public record RepositoryResponse(
         String repositoryName,
         String ownerLogin,
-        List<BranchResponse> branches
-) {}
\ No newline at end of file
+        List<BranchResponse> branches,
+        @JsonInclude(JsonInclude.Include.NON_DEFAULT) boolean branchesTimedOut
+) {
+
+    public RepositoryResponse(final String repositoryName, final String ownerLogin, final List<BranchResponse> branches) {
+        this(repositoryName, ownerLogin, branches, false);
+    }
+
+    static RepositoryResponse timedOut(final String repositoryName, final String ownerLogin) {
+        return new RepositoryResponse(repositoryName, ownerLogin, List.of(), true);
+    }
+}
@@ -0,0 +1,102 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.function.Supplier;
+
+/**
+ * Deadline of the request being served, carried in a {@link ScopedValue} so every {@code StructuredTaskScope}
+ * subtask forked on its behalf sees it. Nested deadlines never extend an outer one. Scopes opened through
+ * {@link #withRemainingTime} time out at the deadline; what happens to subtasks that did not finish in time is
+ * decided by {@link #exceeded}: fail the request with {@code 504}, or in partial-result mode mark the affected
+ * repository and answer with the rest.
+ */
+@Component
+final class RequestDeadlines {
+
+    private static final ScopedValue<Instant> DEADLINE = ScopedValue.newInstance();
+    private static final Duration MIN_TIMEOUT = Duration.ofMillis(1);
+
+    private final Duration requestTimeout;
+    private final boolean partialResults;
+    private final Counter partial;
+    private final Counter failed;
+
+    RequestDeadlines(final DeadlineProperties properties, final MeterRegistry meterRegistry) {
+        this.requestTimeout = properties.requestTimeout();
+        this.partialResults = properties.partialResults();
+        this.partial = Counter.builder("github.deadline.exceeded")
+                .description("Branch fetches still running when the request deadline expired")
+                .tag("outcome", "partial")
+                .register(meterRegistry);
+        this.failed = Counter.builder("github.deadline.exceeded")
+                .description("Branch fetches still running when the request deadline expired")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code work} under a deadline of {@code request-timeout} from now, or under the current deadline when
+     * that one is earlier or no timeout is configured.
+     */
+    <T> T withinRequestTimeout(final Supplier<T> work) {
+        return within(newDeadline(), work);
+    }
+
+    /**
+     * The deadline a request starting now would get, for work that runs later on another thread.
+     */
+    @Nullable Instant newDeadline() {
+        final var current = DEADLINE.isBound() ? DEADLINE.get() : null;
+        if (requestTimeout.isZero() || requestTimeout.isNegative()) {
+            return current;
+        }
+
+        final var deadline = Instant.now().plus(requestTimeout);
+        return current != null && current.isBefore(deadline) ? current : deadline;
+    }
+
+    <T> T within(final @Nullable Instant deadline, final Supplier<T> work) {
+        if (deadline == null) {
+            return work.get();
+        }
+        return ScopedValue.where(DEADLINE, deadline).call(work::get);
+    }
+
+    /**
+     * Time left until the current deadline, at least one millisecond, or {@code null} without a deadline.
+     */
+    @Nullable Duration remaining() {
+        if (!DEADLINE.isBound()) {
+            return null;
+        }
+        final var remaining = Duration.between(Instant.now(), DEADLINE.get());
+        return remaining.compareTo(MIN_TIMEOUT) < 0 ? MIN_TIMEOUT : remaining;
+    }
+
+    StructuredTaskScope.Configuration withRemainingTime(final StructuredTaskScope.Configuration configuration) {
+        final var remaining = remaining();
+        return remaining == null ? configuration : configuration.withTimeout(remaining);
+    }
+
+    /**
+     * Accounts for a repository whose branches missed the deadline. Returns its placeholder in partial-result
+     * mode, and fails the request otherwise.
+     */
+    RepositoryResponse exceeded(final String repositoryName, final String ownerLogin) {
+        if (!partialResults) {
+            failed.increment();
+            throw new GithubTimeoutException(
+                    "GitHub did not return branches of %s/%s within the request deadline".formatted(ownerLogin, repositoryName)
+            );
+        }
+        partial.increment();
+        return RepositoryResponse.timedOut(repositoryName, ownerLogin);
+    }
+}
@@ -0,0 +1,92 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+
+import java.nio.channels.ClosedByInterruptException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one in-flight computation whose result or exception
+ * is shared by every caller. If the leading call is cancelled because its own thread was interrupted
+ * (e.g. its {@code StructuredTaskScope} was shut down), waiting callers are not failed with that
+ * interruption - one of them retries and becomes the new leader. Any other failure, including an upstream
+ * timeout, is shared like a result, so a slow key costs one timeout rather than one per caller.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    V execute(final K key, final Supplier<V> call) {
+        while (true) {
+            final var flight = new CompletableFuture<V>();
+            final var existing = inFlight.putIfAbsent(key, flight);
+
+            if (existing == null) {
+                return lead(key, flight, call);
+            }
+
+            try {
+                return await(existing);
+            } catch (final CancellationException ignored) {
+                // the leader was interrupted, try again (possibly as the new leader)
+            }
+        }
+    }
+
+    private V lead(final K key, final CompletableFuture<V> flight, final Supplier<V> call) {
+        final V value;
+        try {
+            value = call.get();
+        } catch (final RuntimeException | Error ex) {
+            inFlight.remove(key, flight);
+            if (isInterruption(ex)) {
+                flight.cancel(false);
+            } else {
+                flight.completeExceptionally(ex);
+            }
+            throw ex;
+        }
+
+        inFlight.remove(key, flight);
+        flight.complete(value);
+        return value;
+    }
+
+    private static <V> V await(final CompletableFuture<V> flight) {
+        try {
+            return flight.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight GitHub call", e);
+        } catch (final ExecutionException e) {
+            throw propagate(e.getCause());
+        }
+    }
+
+    private static RuntimeException propagate(final Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static boolean isInterruption(final Throwable ex) {
+        if (Thread.currentThread().isInterrupted()) {
+            return true;
+        }
+        for (@Nullable Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InterruptedException || cause instanceof ClosedByInterruptException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
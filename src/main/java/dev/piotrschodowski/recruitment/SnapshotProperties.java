@@ -0,0 +1,16 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties("github.snapshot")
+record SnapshotProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/github-snapshot.bin") Path path,
+        @DefaultValue("64MB") DataSize maxSize,
+        @DefaultValue("1024") int queueCapacity
+) {
+}
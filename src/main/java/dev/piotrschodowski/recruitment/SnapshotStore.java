@@ -0,0 +1,311 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of repository trees and validated GitHub bodies, so a restarted instance comes up warm.
+ * <p>
+ * Every record is {@code magic | length | crc32 | json}. Records are appended by a single writer thread fed
+ * from a bounded queue, so the request path only pays for an enqueue; when the queue is full the record is
+ * dropped, because the next load will produce a new one anyway. Nothing is forced to disk per record: a crash
+ * loses at most the tail, which the loader recognizes as truncated.
+ * <p>
+ * The file is read in the background once the application is ready. Records with a bad magic, length or
+ * checksum, including a partial record left at the tail, are skipped by scanning forward to the next magic
+ * marker, and restored entries never replace fresher ones already loaded from GitHub. When the file outgrows
+ * {@code max-size} it is rewritten from the current cache contents.
+ */
+@Component
+@ConditionalOnProperty(prefix = "github.snapshot", name = "enabled", havingValue = "true")
+final class SnapshotStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SnapshotStore.class);
+
+    static final int MAGIC = 0x47485331; // "GHS1"
+    private static final int HEADER_BYTES = 3 * Integer.BYTES;
+
+    private final Path path;
+    private final long maxSize;
+    private final RepositoriesCache repositoriesCache;
+    private final GithubConditionalCache conditionalCache;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService writer;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter restored;
+    private final Counter corrupt;
+
+    // owned by the writer thread
+    private @Nullable FileChannel channel;
+    private long compactedSize;
+
+    SnapshotStore(
+            final SnapshotProperties properties,
+            final RepositoriesCache repositoriesCache,
+            final GithubConditionalCache conditionalCache,
+            final ObjectMapper objectMapper,
+            final MeterRegistry meterRegistry
+    ) {
+        this.path = properties.path();
+        this.maxSize = properties.maxSize().toBytes();
+        this.repositoriesCache = repositoriesCache;
+        this.conditionalCache = conditionalCache;
+        this.objectMapper = objectMapper;
+        this.written = counter(meterRegistry, "written");
+        this.dropped = counter(meterRegistry, "dropped");
+        this.restored = counter(meterRegistry, "restored");
+        this.corrupt = counter(meterRegistry, "corrupt");
+        this.writer = new ThreadPoolExecutor(
+                1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                Thread.ofVirtual().name("github-snapshot-writer").factory(),
+                (task, executor) -> dropped.increment()
+        );
+
+        repositoriesCache.onPut((username, repositories) -> writer.execute(() -> append(
+                new Record(Kind.TREE, username, System.currentTimeMillis(), null, null, null,
+                        objectMapper.valueToTree(repositories))
+        )));
+        conditionalCache.onStore((resource, etag, lastModified, response) -> writer.execute(() -> append(
+                new Record(Kind.VALIDATED, resource, System.currentTimeMillis(), etag, lastModified, response.link(),
+                        objectMapper.valueToTree(response.body()))
+        )));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void loadInBackground() {
+        Thread.ofVirtual().name("github-snapshot-loader").start(() -> {
+            try {
+                load();
+            } catch (final RuntimeException ex) {
+                log.warn("Could not load GitHub snapshot from {}, starting cold", path, ex);
+            }
+        });
+    }
+
+    /**
+     * Restores every intact record of the snapshot file into the caches and returns how many were restored.
+     */
+    int load() {
+        final ByteBuffer buffer;
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+        } catch (final NoSuchFileException ex) {
+            return 0;
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+
+        var restoredRecords = 0;
+        var skippedRecords = 0;
+        while (buffer.remaining() >= HEADER_BYTES) {
+            final var start = buffer.position();
+            final var length = buffer.getInt(start + Integer.BYTES);
+
+            if (buffer.getInt(start) != MAGIC || length < 0 || length > buffer.limit() - start - HEADER_BYTES) {
+                skippedRecords++;
+                resync(buffer, start + 1);
+                continue;
+            }
+
+            final var payload = new byte[length];
+            buffer.get(start + HEADER_BYTES, payload);
+            if (buffer.getInt(start + 2 * Integer.BYTES) != checksum(payload) || !restore(payload)) {
+                skippedRecords++;
+                resync(buffer, start + 1);
+                continue;
+            }
+
+            restoredRecords++;
+            buffer.position(start + HEADER_BYTES + length);
+        }
+
+        restored.increment(restoredRecords);
+        corrupt.increment(skippedRecords);
+        log.info("Restored {} records from GitHub snapshot {}, skipped {} corrupt ones", restoredRecords, path, skippedRecords);
+        if (skippedRecords > 0 || buffer.limit() > maxSize) {
+            writer.execute(this::compact);
+        }
+        return restoredRecords;
+    }
+
+    private boolean restore(final byte[] payload) {
+        try {
+            final var record = objectMapper.readValue(payload, Record.class);
+            switch (record.kind()) {
+                case TREE -> repositoriesCache.restore(
+                        record.key(),
+                        List.of(objectMapper.treeToValue(record.body(), RepositoryResponse[].class)),
+                        Instant.ofEpochMilli(record.savedAt())
+                );
+                case VALIDATED -> conditionalCache.restore(
+                        record.key(),
+                        record.etag(),
+                        record.lastModified(),
+                        new GithubConditionalCache.CachedResponse<>(
+                                objectMapper.treeToValue(record.body(), bodyType(record.key())),
+                                record.link()
+                        )
+                );
+            }
+            return true;
+        } catch (final JacksonException ex) {
+            return false;
+        }
+    }
+
+    private static Class<?> bodyType(final String resource) {
+        if (resource.startsWith("/users/")) {
+            return GithubRepo[].class;
+        }
+        return resource.contains("/branches/") ? GithubBranch.class : GithubBranch[].class;
+    }
+
+    private static void resync(final ByteBuffer buffer, final int from) {
+        for (int position = from; position <= buffer.limit() - Integer.BYTES; position++) {
+            if (buffer.getInt(position) == MAGIC) {
+                buffer.position(position);
+                return;
+            }
+        }
+        buffer.position(buffer.limit());
+    }
+
+    private void append(final Record record) {
+        try {
+            final var out = channel();
+            write(out, record);
+            written.increment();
+            if (out.size() > Math.max(maxSize, 2 * compactedSize)) {
+                compact();
+            }
+        } catch (final IOException | JacksonException ex) {
+            log.warn("Could not append to GitHub snapshot {}", path, ex);
+        }
+    }
+
+    private void compact() {
+        final var temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temporary,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                repositoriesCache.forEach((username, repositories, loadedAt) -> write(out,
+                        new Record(Kind.TREE, username, loadedAt.toEpochMilli(), null, null, null,
+                                objectMapper.valueToTree(repositories))));
+                conditionalCache.forEach((resource, etag, lastModified, response) -> write(out,
+                        new Record(Kind.VALIDATED, resource, System.currentTimeMillis(), etag, lastModified,
+                                response.link(), objectMapper.valueToTree(response.body()))));
+                out.force(true);
+            }
+            closeChannel();
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            compactedSize = Files.size(path);
+            log.info("Compacted GitHub snapshot {} to {} bytes", path, compactedSize);
+        } catch (final IOException | UncheckedIOException | JacksonException ex) {
+            log.warn("Could not compact GitHub snapshot {}", path, ex);
+        }
+    }
+
+    private void write(final FileChannel out, final Record record) {
+        final var payload = objectMapper.writeValueAsBytes(record);
+        final var buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length)
+                .putInt(MAGIC)
+                .putInt(payload.length)
+                .putInt(checksum(payload))
+                .put(payload)
+                .flip();
+        try {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+        } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            final var parent = path.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private static int checksum(final byte[] payload) {
+        final var crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static Counter counter(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder("github.snapshot.records")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        writer.shutdown();
+        if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+            log.warn("GitHub snapshot writer did not drain in time, {} records lost", writer.shutdownNow().size());
+        }
+        if (channel != null) {
+            channel.force(true);
+        }
+        closeChannel();
+    }
+
+    enum Kind {
+        TREE,
+        VALIDATED
+    }
+
+    record Record(
+            Kind kind,
+            String key,
+            long savedAt,
+            @Nullable String etag,
+            @Nullable String lastModified,
+            @Nullable String link,
+            JsonNode body
+    ) {
+    }
+}
@@ -0,0 +1,108 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final Duration LATENCY_THRESHOLD = Duration.ofSeconds(1);
+
+    private long now;
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+            new FanOutProperties(4, 2, 6, 64, LATENCY_THRESHOLD, 0.5),
+            new SimpleMeterRegistry(),
+            () -> now
+    );
+
+    @Test
+    void givenHealthyResponses_whenCalling_thenLimitGrowsByAboutOnePerRound() {
+        for (int i = 0; i < 4; i++) {
+            respondIn(Duration.ofMillis(100));
+        }
+        assertThat(limiter.currentLimit()).isEqualTo(4);
+
+        respondIn(Duration.ofMillis(100));
+        assertThat(limiter.currentLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void givenHealthyResponses_whenCallingForLong_thenLimitStopsAtMax() {
+        for (int i = 0; i < 100; i++) {
+            respondIn(Duration.ofMillis(100));
+        }
+
+        assertThat(limiter.currentLimit()).isEqualTo(6);
+    }
+
+    @Test
+    void givenSlowResponses_whenCalling_thenLimitBacksOffDownToMin() {
+        respondIn(LATENCY_THRESHOLD.plusMillis(1));
+        assertThat(limiter.currentLimit()).isEqualTo(2);
+
+        respondIn(LATENCY_THRESHOLD.plusMillis(1));
+        assertThat(limiter.currentLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void givenBurstOfSlowResponsesAlreadyInFlight_whenTheyComplete_thenLimitBacksOffOnce() {
+        final var wide = new AdaptiveConcurrencyLimiter(
+                new FanOutProperties(32, 1, 64, 64, LATENCY_THRESHOLD, 0.5),
+                new SimpleMeterRegistry(),
+                () -> now
+        );
+
+        // three calls in flight at once, all answered late
+        wide.call(() -> wide.call(() -> wide.call(() -> now += LATENCY_THRESHOLD.plusMillis(1).toNanos())));
+        assertThat(wide.currentLimit()).isEqualTo(16);
+
+        // a call sent after the decrease reports the new load and may back off again
+        wide.call(() -> now += LATENCY_THRESHOLD.plusMillis(1).toNanos());
+        assertThat(wide.currentLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void givenTooManyRequests_whenCalling_thenLimitBacksOffAndPermitIsReleased() {
+        assertThatThrownBy(() -> limiter.call(() -> {
+            throw HttpClientErrorException.create(
+                    HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", new HttpHeaders(), new byte[0], null);
+        })).isInstanceOf(HttpClientErrorException.class);
+
+        assertThat(limiter.currentLimit()).isEqualTo(2);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void givenForbiddenWithoutRateLimitHeaders_whenCalling_thenLimitIsUnchanged() {
+        assertThatThrownBy(() -> limiter.call(() -> {
+            throw HttpClientErrorException.create(
+                    HttpStatus.FORBIDDEN, "Forbidden", new HttpHeaders(), new byte[0], null);
+        })).isInstanceOf(HttpClientErrorException.class);
+
+        assertThat(limiter.currentLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void givenFailingCalls_whenCalling_thenEveryPermitIsReleasedAndLimitIsUnchanged() {
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> limiter.call(() -> {
+                throw new IllegalStateException("connection reset");
+            })).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.currentLimit()).isEqualTo(4);
+        assertThat(limiter.call(() -> limiter.inFlight())).isEqualTo(1);
+    }
+
+    private void respondIn(final Duration latency) {
+        limiter.call(() -> now += latency.toNanos());
+    }
+}
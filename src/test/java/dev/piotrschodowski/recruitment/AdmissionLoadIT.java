@@ -0,0 +1,178 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@value #ABUSIVE_CLIENTS} clients keep {@value #REQUESTS_IN_FLIGHT} requests each in flight for distinct users,
+ * far beyond the {@code max-concurrent} slots, while one well-behaved client sends a request every 100 ms. GitHub
+ * answers every call after {@value #UPSTREAM_DELAY_MS} ms, so a request waits for two such rounds: the listing,
+ * then the branches. The latency comparison depends on the machine, so the test only runs with
+ * {@code -Dadmission.load=true}; {@link FairQueueTest} covers the queue itself.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "github.admission.enabled=true",
+                "github.admission.max-concurrent=8",
+                "github.admission.queue-capacity=32",
+                "github.admission.max-wait=1s",
+                "github.admission.bucket-capacity=100",
+                "github.admission.refill-per-second=100",
+                "github.admission.unknown-cost=10",
+                "github.admission.api-keys=well-behaved,abusive-0,abusive-1,abusive-2,abusive-3,abusive-4,abusive-5,"
+                        + "abusive-6,abusive-7,abusive-8,abusive-9,abusive-10,abusive-11,abusive-12,abusive-13,"
+                        + "abusive-14,abusive-15,abusive-16,abusive-17,abusive-18,abusive-19"
+        }
+)
+class AdmissionLoadIT {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionLoadIT.class);
+
+    private static final int ABUSIVE_CLIENTS = 20;
+    private static final int REQUESTS_IN_FLIGHT = 4;
+    private static final int WELL_BEHAVED_REQUESTS = 20;
+    private static final int UPSTREAM_DELAY_MS = 50;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().containerThreads(128))
+            .build();
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.http.serviceclient.github.base-url", wireMock::baseUrl);
+    }
+
+    private final AtomicInteger users = new AtomicInteger();
+
+    @Test
+    @EnabledIfSystemProperty(named = "admission.load", matches = "true")
+    void givenAbusiveClients_whenServingWellBehavedClient_thenItsLatencyStaysFlatAndAbusersGet429() throws Exception {
+        stubGithub();
+
+        try (var httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            final var baseline = wellBehavedLatencies(httpClient);
+
+            final var running = new AtomicBoolean(true);
+            final var rejected = new AtomicLong();
+            final var retryAfterHeaders = new ConcurrentLinkedQueue<String>();
+            final List<Duration> underLoad;
+            try (var abusers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int client = 0; client < ABUSIVE_CLIENTS; client++) {
+                    final var apiKey = "abusive-" + client;
+                    for (int i = 0; i < REQUESTS_IN_FLIGHT; i++) {
+                        abusers.execute(() -> {
+                            while (running.get()) {
+                                final var response = send(httpClient, apiKey);
+                                if (response.statusCode() == 429) {
+                                    rejected.incrementAndGet();
+                                    response.headers().firstValue("Retry-After").ifPresent(retryAfterHeaders::add);
+                                    sleep(Duration.ofMillis(10));
+                                }
+                            }
+                        });
+                    }
+                }
+
+                try {
+                    sleep(Duration.ofMillis(500));
+                    underLoad = wellBehavedLatencies(httpClient);
+                } finally {
+                    running.set(false);
+                }
+            }
+
+            log.info("Well-behaved p99: {} ms alone, {} ms next to {} abusive clients ({} of their requests got 429)",
+                    p99(baseline).toMillis(), p99(underLoad).toMillis(), ABUSIVE_CLIENTS, rejected.get());
+            assertThat(rejected.get()).isPositive();
+            assertThat(retryAfterHeaders).isNotEmpty().allSatisfy(value -> assertThat(Long.parseLong(value)).isPositive());
+            assertThat(p99(underLoad)).isLessThan(p99(baseline).plusMillis(500));
+        }
+    }
+
+    /**
+     * Sends {@value #WELL_BEHAVED_REQUESTS} requests 100 ms apart, all of which must be admitted.
+     */
+    private List<Duration> wellBehavedLatencies(final HttpClient httpClient) {
+        final var latencies = new ArrayList<Duration>();
+        for (int i = 0; i < WELL_BEHAVED_REQUESTS; i++) {
+            final var startedAt = System.nanoTime();
+            final var response = send(httpClient, "well-behaved");
+            latencies.add(Duration.ofNanos(System.nanoTime() - startedAt));
+            assertThat(response.statusCode()).isEqualTo(200);
+            sleep(Duration.ofMillis(100));
+        }
+        return latencies;
+    }
+
+    private HttpResponse<Void> send(final HttpClient httpClient, final String apiKey) {
+        final var request = HttpRequest.newBuilder(URI.create(
+                        "http://localhost:%d/users/user-%d/repositories".formatted(port, users.incrementAndGet())))
+                .header("Accept", "application/json")
+                .header("X-API-Key", apiKey)
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        } catch (final Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static Duration p99(final List<Duration> latencies) {
+        final var sorted = latencies.stream().sorted().toList();
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(0.99 * sorted.size()) - 1));
+    }
+
+    private static void sleep(final Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void stubGithub() {
+        wireMock.stubFor(get(urlPathMatching("/users/[^/]+/repos"))
+                .willReturn(okJson("""
+                        [
+                          { "name": "repo-1", "fork": false, "owner": { "login": "octocat" } },
+                          { "name": "repo-2", "fork": false, "owner": { "login": "octocat" } }
+                        ]
+                        """).withFixedDelay(UPSTREAM_DELAY_MS)));
+        wireMock.stubFor(get(urlPathMatching("/repos/octocat/[^/]+/branches"))
+                .willReturn(okJson("[ { \"name\": \"main\", \"commit\": { \"sha\": \"aaa111\" } } ]")
+                        .withFixedDelay(UPSTREAM_DELAY_MS)));
+    }
+}
@@ -0,0 +1,109 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "github.prefetch.enabled=true",
+                "github.prefetch.interval=1h",
+                "github.prefetch.refresh-after=0s",
+                "github.prefetch.top-k=1"
+        }
+)
+@AutoConfigureRestTestClient
+class CacheWarmerIT {
+
+    private static final String HOT_USER = "octocat";
+    private static final String COLD_USER = "hubot";
+
+    @Autowired
+    private RestTestClient restTestClient;
+
+    @Autowired
+    private RepositoriesCache repositoriesCache;
+
+    @Autowired
+    private CacheWarmer cacheWarmer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.http.serviceclient.github.base-url", wireMock::baseUrl);
+    }
+
+    @AfterEach
+    void evictCachedRepositories() {
+        repositoriesCache.invalidateAll();
+    }
+
+    @Test
+    void givenHotAndColdUsers_whenWarming_thenReloadsOnlyTopUser() {
+        stubUser(HOT_USER);
+        stubUser(COLD_USER);
+
+        request(HOT_USER);
+        request(HOT_USER);
+        request(HOT_USER);
+        request(COLD_USER);
+
+        cacheWarmer.warm();
+
+        wireMock.verify(2, getRequestedFor(urlPathEqualTo("/users/" + HOT_USER + "/repos")));
+        wireMock.verify(2, getRequestedFor(urlPathEqualTo("/repos/" + HOT_USER + "/my-repo/branches")));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/users/" + COLD_USER + "/repos")));
+
+        assertThat(meterRegistry.find("github.prefetch.hot.users").tag("username", HOT_USER).gauge())
+                .isNotNull()
+                .satisfies(gauge -> assertThat(gauge.value()).isEqualTo(3.0));
+        assertThat(meterRegistry.find("github.prefetch.refreshes").tag("outcome", "success").timer())
+                .isNotNull()
+                .satisfies(timer -> assertThat(timer.count()).isEqualTo(1));
+    }
+
+    private void request(final String username) {
+        restTestClient.get()
+                .uri("/users/{username}/repositories", username)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private static void stubUser(final String username) {
+        wireMock.stubFor(get(urlPathEqualTo("/users/" + username + "/repos"))
+                .willReturn(okJson("""
+                        [
+                          { "name": "my-repo", "fork": false, "owner": { "login": "%s" }, "default_branch": "main" }
+                        ]
+                        """.formatted(username))));
+        wireMock.stubFor(get(urlPathEqualTo("/repos/" + username + "/my-repo/branches"))
+                .willReturn(okJson("""
+                        [ { "name": "main", "commit": { "sha": "aaa111" } } ]
+                        """)));
+    }
+}
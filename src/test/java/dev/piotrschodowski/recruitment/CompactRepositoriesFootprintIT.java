@@ -0,0 +1,59 @@
+package dev.piotrschodowski.recruitment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jol.info.GraphLayout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures a realistic cache of 1 000 users with 10 repositories of 5 branches each, where every name and SHA is
+ * its own string as parsed from GitHub's JSON, and logs the bytes per branch of both forms for this JVM. JOL walks
+ * the whole object graph and may need to attach an agent, so the test only runs with {@code -Dcompact.footprint=true};
+ * {@link CompactRepositoriesTest} covers the round trip.
+ */
+@EnabledIfSystemProperty(named = "compact.footprint", matches = "true")
+class CompactRepositoriesFootprintIT {
+
+    private static final Logger log = LoggerFactory.getLogger(CompactRepositoriesFootprintIT.class);
+
+    private static final List<String> BRANCH_NAMES = List.of("main", "master", "develop", "release", "gh-pages");
+
+    @Test
+    void givenParsedTrees_whenCompacting_thenTakesLessThanHalfTheHeapPerBranch() {
+        final var trees = IntStream.range(0, 1_000).mapToObj(CompactRepositoriesFootprintIT::parsedTree).toList();
+        final var names = new NameDictionary(50_000);
+        final var compact = trees.stream().map(tree -> CompactRepositories.of(tree, names)).toList();
+        final var branches = trees.stream().flatMap(List::stream).mapToLong(repository -> repository.branches().size()).sum();
+
+        final var recordsBytes = GraphLayout.parseInstance(trees.toArray()).totalSize();
+        final var compactBytes = GraphLayout.parseInstance(compact.toArray()).totalSize();
+
+        log.info("records: {} bytes/branch, compact: {} bytes/branch ({} branches)",
+                "%.1f".formatted((double) recordsBytes / branches),
+                "%.1f".formatted((double) compactBytes / branches),
+                branches);
+        assertThat(compactBytes).isLessThan(recordsBytes / 2);
+    }
+
+    private static List<RepositoryResponse> parsedTree(final int user) {
+        final var repositories = new ArrayList<RepositoryResponse>();
+        for (int repository = 0; repository < 10; repository++) {
+            final var branches = new ArrayList<BranchResponse>();
+            for (int branch = 0; branch < BRANCH_NAMES.size(); branch++) {
+                branches.add(new BranchResponse(
+                        String.valueOf(BRANCH_NAMES.get(branch).toCharArray()),
+                        "%040x".formatted((long) user * 1_000_003L + repository * 31L + branch)
+                ));
+            }
+            repositories.add(new RepositoryResponse("repo-" + repository, "user-" + user, List.copyOf(branches)));
+        }
+        return List.copyOf(repositories);
+    }
+}
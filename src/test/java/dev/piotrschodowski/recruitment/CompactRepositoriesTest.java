@@ -0,0 +1,48 @@
+package dev.piotrschodowski.recruitment;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompactRepositoriesTest {
+
+    @Test
+    void givenRegularAndIrregularShas_whenCompacting_thenRebuildsIdenticalTree() {
+        final var tree = List.of(
+                new RepositoryResponse("one", "octocat", List.of(
+                        new BranchResponse("main", "0123456789abcdef0123456789abcdef01234567"),
+                        new BranchResponse("dev", "0123456789ABCDEF0123456789ABCDEF01234567"),
+                        new BranchResponse("old", "not-a-sha")
+                )),
+                new RepositoryResponse("empty", "octocat", List.of()),
+                RepositoryResponse.timedOut("slow", "octocat")
+        );
+
+        assertThat(CompactRepositories.of(tree, new NameDictionary(10)).toResponses()).isEqualTo(tree);
+    }
+
+    @Test
+    void givenRepeatedName_whenInterning_thenSharesOneInstance() {
+        final var names = new NameDictionary(10);
+        final var first = names.intern(new String("main"));
+
+        assertThat(names.intern(new String("main"))).isSameAs(first);
+        assertThat(names.size()).isEqualTo(1);
+    }
+
+    @Test
+    void givenFullDictionary_whenANewNameBecomesCommon_thenItIsSharedWithinTheBound() {
+        final var names = new NameDictionary(10);
+        IntStream.range(0, 1_000).forEach(i -> names.intern("branch-" + i));
+
+        for (int i = 0; i < 20; i++) {
+            names.intern(new String("main"));
+        }
+
+        assertThat(names.size()).isLessThanOrEqualTo(10);
+        assertThat(names.intern(new String("main"))).isSameAs(names.intern(new String("main")));
+    }
+}
@@ -0,0 +1,179 @@
+package dev.piotrschodowski.recruitment;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FairQueueTest {
+
+    private static final Duration LONG_WAIT = Duration.ofSeconds(30);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final BlockingQueue<String> granted = new LinkedBlockingQueue<>();
+
+    @AfterEach
+    void stopWaiters() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void givenClientsWithDifferentBacklogs_whenSlotsFree_thenTheyAreServedRoundRobin() throws Exception {
+        final var queue = new FairQueue(1, 10, LONG_WAIT);
+        assertThat(queue.acquire("holder")).isFalse();
+
+        enqueue(queue, "a", "a-1");
+        enqueue(queue, "a", "a-2");
+        enqueue(queue, "a", "a-3");
+        enqueue(queue, "b", "b-1");
+
+        assertThat(handOver(queue)).isEqualTo("a-1");
+        assertThat(handOver(queue)).isEqualTo("b-1");
+        assertThat(handOver(queue)).isEqualTo("a-2");
+        assertThat(handOver(queue)).isEqualTo("a-3");
+        assertThat(queue.queued()).isZero();
+    }
+
+    @Test
+    void givenFullQueue_whenAnotherClientArrives_thenNewestWaiterOfLongestBacklogIsDisplaced() throws Exception {
+        final var queue = new FairQueue(1, 3, LONG_WAIT);
+        queue.acquire("holder");
+
+        enqueue(queue, "a", "a-1");
+        enqueue(queue, "a", "a-2");
+        final var displaced = enqueue(queue, "a", "a-3");
+        enqueue(queue, "b", "b-1");
+
+        assertThatThrownBy(() -> displaced.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(TooManyRequestsException.class);
+        assertThat(queue.queued()).isEqualTo(3);
+
+        assertThat(handOver(queue)).isEqualTo("a-1");
+        assertThat(handOver(queue)).isEqualTo("b-1");
+        assertThat(handOver(queue)).isEqualTo("a-2");
+    }
+
+    @Test
+    void givenFullQueue_whenNewcomerWouldHaveLongestBacklog_thenItIsTurnedAway() throws Exception {
+        final var queue = new FairQueue(1, 2, LONG_WAIT);
+        queue.acquire("holder");
+
+        enqueue(queue, "a", "a-1");
+        enqueue(queue, "b", "b-1");
+
+        assertThatThrownBy(() -> queue.acquire("a"))
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessageContaining("queued");
+        assertThat(queue.queued()).isEqualTo(2);
+    }
+
+    @Test
+    void givenWaitRunningOut_whenSlotIsGrantedBeforeAbandoning_thenWaiterKeepsTheSlot() {
+        final var queue = new FairQueue(1, 10, Duration.ofMillis(50));
+        queue.acquire("holder");
+
+        final var turn = new RacingTurn(queue, new TimeoutException());
+
+        assertThat(queue.acquire("a", turn)).isTrue();
+        assertThat(queue.queued()).isZero();
+        assertThatThrownBy(() -> queue.acquire("b"))
+                .as("the handed-over slot is still taken")
+                .isInstanceOf(TooManyRequestsException.class)
+                .hasMessageContaining("waited too long");
+
+        queue.release();
+        assertThat(queue.acquire("b")).isFalse();
+    }
+
+    @Test
+    void givenWaitRunningOut_whenNoSlotIsGranted_thenWaiterIsRejectedAndRemoved() {
+        final var queue = new FairQueue(1, 10, Duration.ofMillis(50));
+        queue.acquire("holder");
+
+        assertThatThrownBy(() -> queue.acquire("a"))
+                .isInstanceOfSatisfying(TooManyRequestsException.class, ex ->
+                        assertThat(ex.retryAfter()).isEqualTo(Duration.ofMillis(50)));
+        assertThat(queue.queued()).isZero();
+
+        queue.release();
+        assertThat(queue.acquire("b")).isFalse();
+    }
+
+    @Test
+    void givenInterruptAfterGrant_whenAbandoning_thenTheGrantedSlotIsReleased() {
+        final var queue = new FairQueue(1, 10, LONG_WAIT);
+        queue.acquire("holder");
+
+        final var turn = new RacingTurn(queue, new InterruptedException());
+
+        try {
+            assertThatThrownBy(() -> queue.acquire("a", turn)).isInstanceOf(IllegalStateException.class);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+        assertThat(queue.queued()).isZero();
+        assertThat(queue.acquire("b")).as("the slot went back to the pool").isFalse();
+    }
+
+    /**
+     * Starts a waiter and returns once it is parked waiting for its turn, or has already been turned away.
+     */
+    private Future<?> enqueue(final FairQueue queue, final String client, final String name) throws Exception {
+        final var thread = new CompletableFuture<Thread>();
+        final var waiter = executor.submit(() -> {
+            thread.complete(Thread.currentThread());
+            queue.acquire(client);
+            granted.add(name);
+            return null;
+        });
+        final var waiterThread = thread.get(5, TimeUnit.SECONDS);
+        while (waiterThread.getState() != Thread.State.TIMED_WAITING && !waiter.isDone()) {
+            Thread.sleep(1);
+        }
+        return waiter;
+    }
+
+    private String handOver(final FairQueue queue) throws InterruptedException {
+        queue.release();
+        final var next = granted.poll(5, TimeUnit.SECONDS);
+        assertThat(next).as("a waiter was granted the released slot").isNotNull();
+        return next;
+    }
+
+    /**
+     * A turn whose wait fails with {@code failure} right after another thread handed it a slot, the ordering a
+     * timeout or interrupt racing a grant produces.
+     */
+    private static final class RacingTurn extends CompletableFuture<Void> {
+
+        private final FairQueue queue;
+        private final Exception failure;
+
+        private RacingTurn(final FairQueue queue, final Exception failure) {
+            this.queue = queue;
+            this.failure = failure;
+        }
+
+        @Override
+        public Void get(final long timeout, final TimeUnit unit) throws InterruptedException, TimeoutException {
+            queue.release();
+            assertThat(isDone()).isTrue();
+            if (failure instanceof InterruptedException interrupted) {
+                throw interrupted;
+            }
+            throw (TimeoutException) failure;
+        }
+    }
+}
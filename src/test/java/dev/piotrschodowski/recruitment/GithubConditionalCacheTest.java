@@ -0,0 +1,86 @@
+package dev.piotrschodowski.recruitment;
+
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GithubConditionalCacheTest {
+
+    private static final int MAX_ENTRIES = 100;
+
+    private final GithubConditionalCache cache = new GithubConditionalCache(MAX_ENTRIES);
+
+    @Test
+    void givenCachedResource_whenGithubAnswers304_thenServesCachedBody() {
+        cache.fetch("/users/octocat/repos", (ifNoneMatch, ifModifiedSince) -> ResponseEntity.ok()
+                .eTag("\"v1\"")
+                .body("repositories"));
+
+        final var validators = new ArrayList<@Nullable String>();
+        final var response = cache.<String>fetch("/users/octocat/repos", (ifNoneMatch, ifModifiedSince) -> {
+            validators.add(ifNoneMatch);
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        });
+
+        assertThat(validators).containsExactly("\"v1\"");
+        assertThat(response.body()).isEqualTo("repositories");
+    }
+
+    @Test
+    void givenEntryDroppedWhileRevalidating_whenGithubAnswers304_thenServesTheBodyWhoseValidatorsWereSent() {
+        final var resource = "/users/octocat/repos";
+        cache.fetch(resource, (ifNoneMatch, ifModifiedSince) -> ResponseEntity.ok()
+                .eTag("\"v1\"")
+                .body("repositories"));
+
+        final var response = cache.<String>fetch(resource, (ifNoneMatch, ifModifiedSince) -> {
+            // a response without validators drops the entry, as eviction or a webhook would
+            cache.fetch(resource, (ignored, alsoIgnored) -> ResponseEntity.ok().body("unvalidated"));
+            assertThat(cache.<String>peek(resource)).isNull();
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        });
+
+        assertThat(response.body()).isEqualTo("repositories");
+    }
+
+    @Test
+    void givenEntryDroppedWhileRevalidatingReactively_whenGithubAnswers304_thenServesTheBodyWhoseValidatorsWereSent() {
+        final var resource = "/users/octocat/repos?page=1";
+        cache.fetch(resource, (ifNoneMatch, ifModifiedSince) -> ResponseEntity.ok()
+                .eTag("\"v1\"")
+                .body("repositories"));
+
+        final GithubConditionalCache.Validators<String> validators = cache.validators(resource);
+        cache.fetch(resource, (ignored, alsoIgnored) -> ResponseEntity.ok().body("unvalidated"));
+
+        assertThat(validators.etag()).isEqualTo("\"v1\"");
+        assertThat(cache.accept(resource, ResponseEntity.status(HttpStatus.NOT_MODIFIED).build(), validators).body())
+                .isEqualTo("repositories");
+    }
+
+    @Test
+    void givenFullCache_whenNewResourceIsFetched_thenItIsCachedAndRevalidated() {
+        for (int i = 0; i < MAX_ENTRIES * 2; i++) {
+            final var body = "body-" + i;
+            cache.fetch("/repos/octocat/repo-" + i + "/branches", (ifNoneMatch, ifModifiedSince) -> ResponseEntity.ok()
+                    .eTag("\"" + body + "\"")
+                    .body(body));
+        }
+
+        final var resource = "/repos/octocat/newest/branches";
+        cache.fetch(resource, (ifNoneMatch, ifModifiedSince) -> ResponseEntity.ok()
+                .eTag("\"newest\"")
+                .body(List.of("main")));
+
+        assertThat(cache.validators(resource).etag()).isEqualTo("\"newest\"");
+        final var response = cache.<List<String>>fetch(resource, (ifNoneMatch, ifModifiedSince) ->
+                ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+        assertThat(response.body()).containsExactly("main");
+    }
+}
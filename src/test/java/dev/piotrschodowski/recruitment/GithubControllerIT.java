@@ -1,24 +1,34 @@
 package dev.piotrschodowski.recruitment;
 
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.client.RestTestClient;
 import tools.jackson.databind.ObjectMapper;
 
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
-import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -38,6 +48,12 @@ class GithubControllerIT {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private RepositoriesCache repositoriesCache;
+
+    @Value("${local.server.port}")
+    private int port;
+
     @RegisterExtension
     static WireMockExtension wireMock = WireMockExtension.newInstance()
             .options(wireMockConfig().dynamicPort())
@@ -48,6 +64,11 @@ class GithubControllerIT {
         registry.add("spring.http.serviceclient.github.base-url", wireMock::baseUrl);
     }
 
+    @AfterEach
+    void evictCachedRepositories() {
+        repositoriesCache.invalidateAll();
+    }
+
     @Test
     void givenForksExist_whenListingRepositories_thenReturnsOnlyNonForksWithBranches() {
         stubGithubUserReposWithForksAndNonForks();
@@ -104,7 +125,7 @@ class GithubControllerIT {
                     assertThat(repos).isEmpty();
                 });
 
-        wireMock.verify(1, getRequestedFor(urlEqualTo("/users/" + EXISTING_USER + "/repos")));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/users/" + EXISTING_USER + "/repos")));
     }
 
     @Test
@@ -126,7 +147,7 @@ class GithubControllerIT {
                     assertThat(body.message()).contains("GitHub user '" + MISSING_USER + "' not found");
                 });
 
-        wireMock.verify(1, getRequestedFor(urlEqualTo("/users/" + MISSING_USER + "/repos")));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/users/" + MISSING_USER + "/repos")));
     }
 
     @Test
@@ -170,16 +191,286 @@ class GithubControllerIT {
         verifyWireMockRequestsForHappyPath();
     }
 
+    @Test
+    void givenNdjsonAccepted_whenListingRepositories_thenStreamsOneRepositoryPerLine() {
+        stubGithubUserReposWithForksAndNonForks();
+        stubGithubRepoBranches();
+
+        restTestClient.get()
+                .uri("/users/{username}/repositories", EXISTING_USER)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .consumeWith(result -> {
+                    assertThat(result.getResponseBody())
+                            .as("Response body must not be null")
+                            .isNotNull();
+
+                    final var lines = result.getResponseBody().lines().toList();
+                    assertThat(lines).hasSize(1);
+
+                    final var repo = objectMapper.readValue(lines.getFirst(), RepositoryResponse.class);
+                    assertThat(repo.repositoryName()).isEqualTo(NON_FORK_REPO);
+                    assertThat(repo.ownerLogin()).isEqualTo(EXISTING_USER);
+                    assertThat(repo.branches()).hasSize(2);
+                });
+
+        restTestClient.get()
+                .uri("/users/{username}/repositories", EXISTING_USER)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk();
+
+        // the streamed tree was cached, so the second request made no GitHub calls
+        verifyWireMockRequestsForHappyPath();
+    }
+
+    @Test
+    void givenNdjsonAcceptedAndMissingGithubUser_whenListingRepositories_thenReturns404() {
+        stubGithubUserReposNotFound();
+
+        restTestClient.get()
+                .uri("/users/{username}/repositories", MISSING_USER)
+                .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void givenUnchangedRepositories_whenPollingWithIfNoneMatch_thenReturns304() {
+        stubGithubUserReposWithForksAndNonForks();
+        stubGithubRepoBranches();
+
+        final var etag = restTestClient.get()
+                .uri("/users/{username}/repositories", EXISTING_USER)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+        assertThat(etag).isNotNull();
+
+        restTestClient.get()
+                .uri("/users/{username}/repositories", EXISTING_USER)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody().isEmpty();
+
+        restTestClient.get()
+                .uri("/users/{username}/repositories?fields=repositoryName", EXISTING_USER)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void givenLargeResponse_whenGzipAccepted_thenCompressesBody() throws Exception {
+        stubGithubUserReposWithForksAndNonForks();
+        final var branches = IntStream.range(0, 200)
+                .mapToObj(i -> new GithubBranch("branch-" + i, new GithubBranch.Commit("%040d".formatted(i))))
+                .toList();
+        wireMock.stubFor(get(urlPathEqualTo("/repos/" + EXISTING_USER + "/" + NON_FORK_REPO + "/branches"))
+                .willReturn(okJson(objectMapper.writeValueAsString(branches))));
+
+        try (var client = HttpClient.newHttpClient()) {
+            final var request = HttpRequest.newBuilder(URI.create("http://localhost:%d/users/%s/repositories".formatted(port, EXISTING_USER)))
+                    .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+                    .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                    .build();
+            final var response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).hasValue("gzip");
+            try (var body = new GZIPInputStream(response.body())) {
+                final var repos = objectMapper.readValue(body, RepositoryResponse[].class);
+                assertThat(repos[0].branches()).hasSize(200);
+            }
+        }
+    }
+
+    @Test
+    void givenBranchesNone_whenListingRepositories_thenSkipsBranchFanOutAndOmitsBranches() {
+        stubGithubUserReposWithForksAndNonForks();
+
+        restTestClient.get()
+                .uri("/users/{username}/repositories?branches=none", EXISTING_USER)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].repositoryName").isEqualTo(NON_FORK_REPO)
+                .jsonPath("$[0].ownerLogin").isEqualTo(EXISTING_USER)
+                .jsonPath("$[0].branches").doesNotExist();
+
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/users/" + EXISTING_USER + "/repos")));
+        wireMock.verify(0, getRequestedFor(urlPathMatching("/repos/.*")));
+    }
+
+    @Test
+    void givenNameFilter_whenListingRepositories_thenFiltersBeforeFetchingBranches() {
+        stubGithubUserReposWithForksAndNonForks();
+        stubGithubRepoBranches();
+
+        restTestClient.get()
+                .uri("/users/{username}/repositories?name=other-*", EXISTING_USER)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryResponse[].class)
+                .consumeWith(result -> assertThat(result.getResponseBody()).isEmpty());
+
+        wireMock.verify(0, getRequestedFor(urlPathMatching("/repos/.*")));
+    }
+
+    @Test
+    void givenBranchesDefault_whenListingRepositories_thenFetchesOnlyDefaultBranch() {
+        stubGithubUserReposWithForksAndNonForks();
+        wireMock.stubFor(get(urlPathEqualTo("/repos/" + EXISTING_USER + "/" + NON_FORK_REPO + "/branches/main"))
+                .willReturn(okJson("""
+                        { "name": "main", "commit": { "sha": "aaa111", "url": "https://api.github.com/..." },
+                          "protected": false }
+                        """)));
+
+        restTestClient.get()
+                .uri("/users/{username}/repositories?branches=default&name=MY-*", EXISTING_USER)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryResponse[].class)
+                .consumeWith(result -> {
+                    assertThat(result.getResponseBody()).isNotNull();
+                    assertThat(result.getResponseBody()).hasSize(1);
+                    assertThat(result.getResponseBody()[0].branches())
+                            .containsExactly(new BranchResponse("main", "aaa111"));
+                });
+
+        wireMock.verify(0, getRequestedFor(urlPathEqualTo("/repos/" + EXISTING_USER + "/" + NON_FORK_REPO + "/branches")));
+    }
+
+    @Test
+    void givenFieldsProjection_whenListingRepositories_thenReturnsOnlySelectedFields() {
+        stubGithubUserReposWithForksAndNonForks();
+
+        restTestClient.get()
+                .uri("/users/{username}/repositories?fields=repositoryName", EXISTING_USER)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].repositoryName").isEqualTo(NON_FORK_REPO)
+                .jsonPath("$[0].ownerLogin").doesNotExist()
+                .jsonPath("$[0].branches").doesNotExist();
+
+        wireMock.verify(0, getRequestedFor(urlPathMatching("/repos/.*")));
+    }
+
+    @Test
+    void givenUnknownBranchesValue_whenListingRepositories_thenReturns400() {
+        restTestClient.get()
+                .uri("/users/{username}/repositories?branches=some", EXISTING_USER)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void givenExistingAndMissingUsers_whenResolvingBatch_thenReturnsPerUserResultsAndErrors() {
+        stubGithubUserReposWithForksAndNonForks();
+        stubGithubRepoBranches();
+        stubGithubUserReposNotFound();
+
+        restTestClient.post()
+                .uri("/users/repositories:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(new BatchRepositoriesRequest(List.of(EXISTING_USER, MISSING_USER, EXISTING_USER)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(BatchRepositoriesResult[].class)
+                .consumeWith(result -> {
+                    assertThat(result.getResponseBody())
+                            .as("Response body must not be null")
+                            .isNotNull();
+
+                    final var results = result.getResponseBody();
+                    assertThat(results).extracting(BatchRepositoriesResult::username)
+                            .containsExactly(EXISTING_USER, MISSING_USER);
+
+                    assertThat(results[0].error()).isNull();
+                    assertThat(results[0].repositories())
+                            .extracting(RepositoryResponse::repositoryName)
+                            .containsExactly(NON_FORK_REPO);
+
+                    assertThat(results[1].repositories()).isNull();
+                    assertThat(results[1].error()).isNotNull();
+                    assertThat(results[1].error().status()).isEqualTo(404);
+                });
+
+        verifyWireMockRequestsForHappyPath();
+    }
+
+    @Test
+    void givenNdjsonAccepted_whenResolvingBatch_thenStreamsOneResultPerLine() {
+        stubGithubUserReposWithForksAndNonForks();
+        stubGithubRepoBranches();
+        stubGithubUserReposNotFound();
+
+        restTestClient.post()
+                .uri("/users/repositories:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(new BatchRepositoriesRequest(List.of(EXISTING_USER, MISSING_USER)))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .consumeWith(result -> {
+                    assertThat(result.getResponseBody())
+                            .as("Response body must not be null")
+                            .isNotNull();
+
+                    final var results = result.getResponseBody().lines()
+                            .map(line -> objectMapper.readValue(line, BatchRepositoriesResult.class))
+                            .toList();
+                    assertThat(results).extracting(BatchRepositoriesResult::username)
+                            .containsExactlyInAnyOrder(EXISTING_USER, MISSING_USER);
+                });
+    }
+
+    @Test
+    void givenEmptyBatch_whenResolvingBatch_thenReturns400() {
+        restTestClient.post()
+                .uri("/users/repositories:batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(new BatchRepositoriesRequest(List.of()))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorResponse.class)
+                .consumeWith(result -> {
+                    assertThat(result.getResponseBody()).isNotNull();
+                    assertThat(result.getResponseBody().status()).isEqualTo(400);
+                });
+    }
+
     // ---------- WireMock stubs ----------
 
     private void stubGithubUserReposWithForksAndNonForks() {
         final var githubRepos = List.of(
-                new GithubRepo(FORK_REPO, new GithubRepo.Owner(EXISTING_USER), true),
-                new GithubRepo(NON_FORK_REPO, new GithubRepo.Owner(EXISTING_USER), false),
-                new GithubRepo("another-fork", new GithubRepo.Owner(EXISTING_USER), true)
+                new GithubRepo(FORK_REPO, new GithubRepo.Owner(EXISTING_USER), true, "main"),
+                new GithubRepo(NON_FORK_REPO, new GithubRepo.Owner(EXISTING_USER), false, "main"),
+                new GithubRepo("another-fork", new GithubRepo.Owner(EXISTING_USER), true, "main")
         );
 
-        wireMock.stubFor(get(urlEqualTo("/users/" + EXISTING_USER + "/repos"))
+        wireMock.stubFor(get(urlPathEqualTo("/users/" + EXISTING_USER + "/repos"))
                 .willReturn(okJson(objectMapper.writeValueAsString(githubRepos))));
     }
 
@@ -189,12 +480,12 @@ class GithubControllerIT {
                 new GithubBranch("dev", new GithubBranch.Commit("bbb222"))
         );
 
-        wireMock.stubFor(get(urlEqualTo("/repos/" + EXISTING_USER + "/" + NON_FORK_REPO + "/branches"))
+        wireMock.stubFor(get(urlPathEqualTo("/repos/" + EXISTING_USER + "/" + NON_FORK_REPO + "/branches"))
                 .willReturn(okJson(objectMapper.writeValueAsString(branches))));
     }
 
     private void stubGithubUserReposNotFound() {
-        wireMock.stubFor(get(urlEqualTo("/users/" + MISSING_USER + "/repos"))
+        wireMock.stubFor(get(urlPathEqualTo("/users/" + MISSING_USER + "/repos"))
                 .willReturn(aResponse()
                         .withStatus(404)
                         .withHeader("Content-Type", "application/json")
@@ -202,15 +493,15 @@ class GithubControllerIT {
     }
 
     private void stubGithubUserReposEmpty() {
-        wireMock.stubFor(get(urlEqualTo("/users/" + EXISTING_USER + "/repos"))
+        wireMock.stubFor(get(urlPathEqualTo("/users/" + EXISTING_USER + "/repos"))
                 .willReturn(okJson("[]")));
     }
 
     // ---------- Verifications ----------
 
     private void verifyWireMockRequestsForHappyPath() {
-        wireMock.verify(1, getRequestedFor(urlEqualTo("/users/" + EXISTING_USER + "/repos")));
-        wireMock.verify(1, getRequestedFor(urlEqualTo("/repos/" + EXISTING_USER + "/" + NON_FORK_REPO + "/branches")));
-        wireMock.verify(0, getRequestedFor(urlEqualTo("/repos/" + EXISTING_USER + "/" + FORK_REPO + "/branches")));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/users/" + EXISTING_USER + "/repos")));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/repos/" + EXISTING_USER + "/" + NON_FORK_REPO + "/branches")));
+        wireMock.verify(0, getRequestedFor(urlPathEqualTo("/repos/" + EXISTING_USER + "/" + FORK_REPO + "/branches")));
     }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package dev.piotrschodowski.recruitment;
 
 import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpStatus;
@@ -34,6 +36,9 @@ class GithubControllerIntegrationTest {
 
     private RestClient appClient;
 
+    @Autowired
+    private RepositoriesCache repositoriesCache;
+
     @RegisterExtension
     static WireMockExtension wireMock = WireMockExtension.newInstance()
             .options(wireMockConfig().dynamicPort())
@@ -51,6 +56,11 @@ class GithubControllerIntegrationTest {
                 .build();
     }
 
+    @AfterEach
+    void tearDown() {
+        repositoriesCache.invalidateAll();
+    }
+
     @Test
     void shouldReturnOnlyNonForkRepositoriesWithBranches() {
         // given
@@ -77,9 +87,9 @@ class GithubControllerIntegrationTest {
         assertThat(branchNames(repo.branches())).containsExactly("main", "dev");
         assertThat(branchShas(repo.branches())).containsExactly("aaa111", "bbb222");
 
-        wireMock.verify(1, getRequestedFor(urlEqualTo("/users/" + EXISTING_USER + "/repos")));
-        wireMock.verify(1, getRequestedFor(urlEqualTo("/repos/" + EXISTING_USER + "/" + NON_FORK_REPO + "/branches")));
-        wireMock.verify(0, getRequestedFor(urlEqualTo("/repos/" + EXISTING_USER + "/" + FORK_REPO + "/branches")));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/users/" + EXISTING_USER + "/repos")));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/repos/" + EXISTING_USER + "/" + NON_FORK_REPO + "/branches")));
+        wireMock.verify(0, getRequestedFor(urlPathEqualTo("/repos/" + EXISTING_USER + "/" + FORK_REPO + "/branches")));
     }
 
     @Test
@@ -100,7 +110,7 @@ class GithubControllerIntegrationTest {
     }
 
     private static void stubGithubUserReposExisting() {
-        wireMock.stubFor(get(urlEqualTo("/users/" + EXISTING_USER + "/repos"))
+        wireMock.stubFor(get(urlPathEqualTo("/users/" + EXISTING_USER + "/repos"))
                 .willReturn(okJson("""
                         [
                           { "name": "%s", "fork": true,  "owner": { "login": "%s" } },
@@ -110,7 +120,7 @@ class GithubControllerIntegrationTest {
     }
 
     private static void stubGithubRepoBranchesExisting() {
-        wireMock.stubFor(get(urlEqualTo("/repos/" + EXISTING_USER + "/" + NON_FORK_REPO + "/branches"))
+        wireMock.stubFor(get(urlPathEqualTo("/repos/" + EXISTING_USER + "/" + NON_FORK_REPO + "/branches"))
                 .willReturn(okJson("""
                         [
                           { "name": "main", "commit": { "sha": "aaa111" } },
@@ -120,7 +130,7 @@ class GithubControllerIntegrationTest {
     }
 
     private static void stubGithubUserReposNotFound() {
-        wireMock.stubFor(get(urlEqualTo("/users/" + MISSING_USER + "/repos"))
+        wireMock.stubFor(get(urlPathEqualTo("/users/" + MISSING_USER + "/repos"))
                 .willReturn(aResponse()
                         .withStatus(404)
                         .withHeader("Content-Type", "application/json")
@@ -0,0 +1,90 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "github.deadline.request-timeout=500ms",
+                "github.deadline.partial-results=true"
+        }
+)
+@AutoConfigureRestTestClient
+class GithubDeadlineIT {
+
+    private static final String USER = "octocat";
+
+    @Autowired
+    private RestTestClient restTestClient;
+
+    @Autowired
+    private RepositoriesCache repositoriesCache;
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.http.serviceclient.github.base-url", wireMock::baseUrl);
+    }
+
+    @AfterEach
+    void evictCachedRepositories() {
+        repositoriesCache.invalidateAll();
+    }
+
+    @Test
+    void givenOneStuckBranchFetch_whenDeadlineExpires_thenReturnsPartialResultWithoutCachingIt() {
+        wireMock.stubFor(get(urlPathEqualTo("/users/" + USER + "/repos"))
+                .willReturn(okJson("""
+                        [
+                          { "name": "fast-repo", "fork": false, "owner": { "login": "octocat" } },
+                          { "name": "stuck-repo", "fork": false, "owner": { "login": "octocat" } }
+                        ]
+                        """)));
+        wireMock.stubFor(get(urlPathEqualTo("/repos/" + USER + "/fast-repo/branches"))
+                .willReturn(okJson("""
+                        [ { "name": "main", "commit": { "sha": "aaa111" } } ]
+                        """)));
+        wireMock.stubFor(get(urlPathEqualTo("/repos/" + USER + "/stuck-repo/branches"))
+                .willReturn(okJson("[]").withFixedDelay(5_000)));
+
+        final var startedAt = System.nanoTime();
+        final var repositories = restTestClient.get()
+                .uri("/users/{username}/repositories", USER)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryResponse[].class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(3));
+        assertThat(repositories).containsExactly(
+                new RepositoryResponse("fast-repo", USER, List.of(new BranchResponse("main", "aaa111"))),
+                RepositoryResponse.timedOut("stuck-repo", USER)
+        );
+        assertThat(repositoriesCache.peek(USER)).isNull();
+    }
+}
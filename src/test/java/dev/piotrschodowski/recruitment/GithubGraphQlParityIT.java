@@ -0,0 +1,207 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.containing;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureRestTestClient
+class GithubGraphQlParityIT {
+
+    private static final String USER = "octocat";
+    private static final String ORGANIZATION = "octo-org";
+    private static final String MISSING_USER = "missing-user";
+
+    @Autowired
+    private RestTestClient restTestClient;
+
+    @Autowired
+    private GithubGraphQlClient githubGraphQlClient;
+
+    @Autowired
+    private RepositoriesCache repositoriesCache;
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.http.serviceclient.github.base-url", wireMock::baseUrl);
+    }
+
+    @AfterEach
+    void evictCachedRepositories() {
+        repositoriesCache.invalidateAll();
+    }
+
+    @Test
+    void givenSameAccount_whenLoadedThroughGraphQl_thenMatchesRestResult() {
+        stubRestApi();
+        stubGraphQlApi();
+
+        final var restResult = restTestClient.get()
+                .uri("/users/{username}/repositories", USER)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryResponse[].class)
+                .returnResult()
+                .getResponseBody();
+
+        final var graphQlResult = githubGraphQlClient.fetchUserRepositoriesWithBranches(USER);
+
+        assertThat(restResult).isNotNull();
+        assertThat(graphQlResult).containsExactly(restResult);
+        assertThat(graphQlResult.get(1).branches())
+                .extracting(BranchResponse::name)
+                .containsExactly("dev", "main", "release");
+
+        wireMock.verify(3, postRequestedFor(urlPathEqualTo("/graphql")));
+    }
+
+    @Test
+    void givenOrganization_whenLoadedThroughGraphQl_thenMatchesRestResult() {
+        wireMock.stubFor(get(urlPathEqualTo("/users/" + ORGANIZATION + "/repos"))
+                .willReturn(okJson("""
+                        [ { "name": "platform", "fork": false, "owner": { "login": "octo-org" } } ]
+                        """)));
+        wireMock.stubFor(get(urlPathEqualTo("/repos/" + ORGANIZATION + "/platform/branches"))
+                .willReturn(okJson("[ { \"name\": \"main\", \"commit\": { \"sha\": \"c1\" } } ]")));
+        wireMock.stubFor(post(urlPathEqualTo("/graphql"))
+                .withRequestBody(containing("repositoryOwner(login"))
+                .withRequestBody(matchingJsonPath("$.variables.login", equalTo(ORGANIZATION)))
+                .willReturn(okJson("""
+                        { "data": { "repositoryOwner": { "repositories": {
+                          "pageInfo": { "hasNextPage": false, "endCursor": null },
+                          "nodes": [
+                            { "name": "platform", "owner": { "login": "octo-org" }, "refs": {
+                                "pageInfo": { "hasNextPage": false, "endCursor": null },
+                                "nodes": [ { "name": "main", "target": { "oid": "c1" } } ] } }
+                          ] } } } }
+                        """)));
+
+        final var restResult = restTestClient.get()
+                .uri("/users/{username}/repositories", ORGANIZATION)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryResponse[].class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(restResult).isNotNull();
+        assertThat(githubGraphQlClient.fetchUserRepositoriesWithBranches(ORGANIZATION))
+                .containsExactly(restResult)
+                .containsExactly(new RepositoryResponse("platform", ORGANIZATION, List.of(new BranchResponse("main", "c1"))));
+    }
+
+    @Test
+    void givenMissingUser_whenLoadedThroughGraphQl_thenThrowsUserNotFound() {
+        wireMock.stubFor(post(urlPathEqualTo("/graphql"))
+                .withRequestBody(matchingJsonPath("$.variables.login", equalTo(MISSING_USER)))
+                .willReturn(okJson("""
+                        {
+                          "data": { "repositoryOwner": null },
+                          "errors": [ { "type": "NOT_FOUND", "message": "Could not resolve to a RepositoryOwner" } ]
+                        }
+                        """)));
+
+        assertThatThrownBy(() -> githubGraphQlClient.fetchUserRepositoriesWithBranches(MISSING_USER))
+                .isInstanceOf(GithubUserNotFoundException.class)
+                .hasMessageContaining(MISSING_USER);
+    }
+
+    // ---------- WireMock stubs ----------
+
+    private void stubRestApi() {
+        wireMock.stubFor(get(urlPathEqualTo("/users/" + USER + "/repos"))
+                .willReturn(okJson("""
+                        [
+                          { "name": "alpha", "fork": false, "owner": { "login": "octocat" } },
+                          { "name": "beta",  "fork": false, "owner": { "login": "octocat" } },
+                          { "name": "fork",  "fork": true,  "owner": { "login": "octocat" } },
+                          { "name": "gamma", "fork": false, "owner": { "login": "octocat" } }
+                        ]
+                        """)));
+        stubRestBranches("alpha", List.of("main:a1"));
+        stubRestBranches("beta", List.of("dev:b1", "main:b2", "release:b3"));
+        stubRestBranches("gamma", List.of());
+    }
+
+    private void stubRestBranches(final String repository, final List<String> branches) {
+        final var json = branches.stream()
+                .map(branch -> branch.split(":"))
+                .map(parts -> "{ \"name\": \"%s\", \"commit\": { \"sha\": \"%s\" } }".formatted(parts[0], parts[1]))
+                .toList();
+
+        wireMock.stubFor(get(urlPathEqualTo("/repos/" + USER + "/" + repository + "/branches"))
+                .willReturn(okJson("[" + String.join(",", json) + "]")));
+    }
+
+    private void stubGraphQlApi() {
+        wireMock.stubFor(post(urlPathEqualTo("/graphql"))
+                .atPriority(5)
+                .withRequestBody(matchingJsonPath("$.variables.login", equalTo(USER)))
+                .willReturn(okJson("""
+                        { "data": { "repositoryOwner": { "repositories": {
+                          "pageInfo": { "hasNextPage": true, "endCursor": "repos-1" },
+                          "nodes": [
+                            { "name": "alpha", "owner": { "login": "octocat" }, "refs": {
+                                "pageInfo": { "hasNextPage": false, "endCursor": null },
+                                "nodes": [ { "name": "main", "target": { "oid": "a1" } } ] } },
+                            { "name": "beta", "owner": { "login": "octocat" }, "refs": {
+                                "pageInfo": { "hasNextPage": true, "endCursor": "refs-1" },
+                                "nodes": [ { "name": "dev", "target": { "oid": "b1" } },
+                                           { "name": "main", "target": { "oid": "b2" } } ] } }
+                          ] } } } }
+                        """)));
+
+        wireMock.stubFor(post(urlPathEqualTo("/graphql"))
+                .atPriority(1)
+                .withRequestBody(matchingJsonPath("$.variables.after", equalTo("repos-1")))
+                .willReturn(okJson("""
+                        { "data": { "repositoryOwner": { "repositories": {
+                          "pageInfo": { "hasNextPage": false, "endCursor": null },
+                          "nodes": [
+                            { "name": "gamma", "owner": { "login": "octocat" }, "refs": {
+                                "pageInfo": { "hasNextPage": false, "endCursor": null },
+                                "nodes": [] } }
+                          ] } } } }
+                        """)));
+
+        wireMock.stubFor(post(urlPathEqualTo("/graphql"))
+                .atPriority(1)
+                .withRequestBody(containing("repository(owner"))
+                .withRequestBody(matchingJsonPath("$.variables.after", equalTo("refs-1")))
+                .willReturn(okJson("""
+                        { "data": { "repository": {
+                          "name": "beta", "owner": { "login": "octocat" }, "refs": {
+                            "pageInfo": { "hasNextPage": false, "endCursor": null },
+                            "nodes": [ { "name": "release", "target": { "oid": "b3" } } ] } } } }
+                        """)));
+    }
+}
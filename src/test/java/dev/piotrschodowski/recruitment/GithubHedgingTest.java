@@ -0,0 +1,64 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GithubHedgingTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GithubHedging hedging = new GithubHedging(
+            new HedgingProperties(true, 0.95, Duration.ofMillis(20), 64),
+            meterRegistry
+    );
+
+    @Test
+    void givenPrimaryStuckPastPercentile_whenCalling_thenDuplicateWins() {
+        warmUp();
+        final var attempts = new AtomicInteger();
+
+        final var startedAt = System.nanoTime();
+        final var result = hedging.call(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleep(Duration.ofSeconds(5));
+                return "primary";
+            }
+            return "hedge";
+        });
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(2));
+        assertThat(meterRegistry.get("github.hedging.calls").tag("result", "won").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenFastPrimary_whenCalling_thenNoDuplicateIsSent() {
+        warmUp();
+        final var attempts = new AtomicInteger();
+
+        final var result = hedging.call(() -> attempts.incrementAndGet() == 1 ? "primary" : "hedge");
+
+        assertThat(result).isEqualTo("primary");
+        assertThat(attempts).hasValue(1);
+        assertThat(meterRegistry.get("github.hedging.calls").tag("result", "sent").counter().count()).isZero();
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 64; i++) {
+            hedging.call(() -> "warm-up");
+        }
+    }
+
+    private static void sleep(final Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.StructuredTaskScope;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GithubMetricsTest {
+
+    private static final byte[] BODY = "[{\"name\":\"main\"}]".getBytes(StandardCharsets.UTF_8);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GithubMetrics metrics = new GithubMetrics(meterRegistry);
+
+    @Test
+    void givenGithubCall_whenBodyIsRead_thenLatencyAndBytesAreRecordedPerEndpointTemplate() throws Exception {
+        final ClientHttpRequestExecution ok = (request, body) -> new MockClientHttpResponse(BODY, HttpStatus.OK);
+
+        try (var response = metrics.intercept(request("/repos/octocat/hello-world/branches"), new byte[0], ok)) {
+            response.getBody().readAllBytes();
+        }
+
+        final var timer = meterRegistry.get("github.upstream.requests")
+                .tag("endpoint", "/repos/{owner}/{repo}/branches")
+                .tag("status", "200")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        final var bytes = meterRegistry.get("github.upstream.response.bytes")
+                .tag("endpoint", "/repos/{owner}/{repo}/branches")
+                .summary();
+        assertThat(bytes.count()).isEqualTo(1);
+        assertThat(bytes.totalAmount()).isEqualTo(BODY.length);
+    }
+
+    @Test
+    void givenFailingOrUnknownCalls_whenIntercepting_thenStatusAndEndpointTagsDescribeThem() throws Exception {
+        final ClientHttpRequestExecution failing = (request, body) -> {
+            throw new IOException("Connection reset");
+        };
+        final ClientHttpRequestExecution notFound = (request, body) -> new MockClientHttpResponse(new byte[0], HttpStatus.NOT_FOUND);
+
+        assertThatThrownBy(() -> metrics.intercept(request("/users/octocat/repos"), new byte[0], failing))
+                .isInstanceOf(IOException.class);
+        metrics.intercept(request("/rate_limit"), new byte[0], notFound).close();
+
+        assertThat(meterRegistry.get("github.upstream.requests")
+                .tag("endpoint", "/users/{username}/repos")
+                .tag("status", "IO_ERROR")
+                .timer()
+                .count()).isEqualTo(1);
+        assertThat(meterRegistry.get("github.upstream.requests")
+                .tag("endpoint", "other")
+                .tag("status", "404")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenRequestWithFanOut_whenMeasured_thenCallsOfEverySubtaskCountTowardsItsCost() {
+        final ClientHttpRequestExecution ok = (request, body) -> new MockClientHttpResponse(BODY, HttpStatus.OK);
+
+        metrics.measureRequestCost(() -> {
+            call(ok, "/users/octocat/repos");
+            metrics.recordFanOut(2);
+            try (var scope = StructuredTaskScope.open()) {
+                scope.fork(() -> call(ok, "/repos/octocat/one/branches"));
+                scope.fork(() -> call(ok, "/repos/octocat/two/branches"));
+                scope.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return null;
+        });
+
+        final var cost = meterRegistry.get("github.upstream.calls.per.request").summary();
+        assertThat(cost.count()).isEqualTo(1);
+        assertThat(cost.totalAmount()).isEqualTo(3);
+        final var fanOut = meterRegistry.get("github.fanout.width").summary();
+        assertThat(fanOut.count()).isEqualTo(1);
+        assertThat(fanOut.totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void givenRunningSubtask_whenTracked_thenInFlightGaugeFollowsIt() throws Exception {
+        final var inFlight = meterRegistry.get("github.fanout.subtasks.in-flight").gauge();
+
+        final var observed = metrics.trackSubtask(inFlight::value);
+
+        assertThat(observed).isEqualTo(1);
+        assertThat(inFlight.value()).isZero();
+    }
+
+    private Void call(final ClientHttpRequestExecution execution, final String path) {
+        try {
+            metrics.intercept(request(path), new byte[0], execution).close();
+            return null;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MockClientHttpRequest request(final String path) {
+        return new MockClientHttpRequest(HttpMethod.GET, URI.create("https://api.github.com" + path));
+    }
+}
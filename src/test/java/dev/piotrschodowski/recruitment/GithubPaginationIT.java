@@ -0,0 +1,185 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.client.RestTestClient;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureRestTestClient
+class GithubPaginationIT {
+
+    private static final String USER = "octocat";
+    private static final int REPOS_PER_PAGE = 2;
+
+    @Autowired
+    private RestTestClient restTestClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RepositoriesCache repositoriesCache;
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.http.serviceclient.github.base-url", wireMock::baseUrl);
+    }
+
+    @AfterEach
+    void evictCachedRepositories() {
+        repositoriesCache.invalidateAll();
+    }
+
+    @Test
+    void givenSinglePage_whenListingRepositories_thenFetchesOnlyFirstPage() {
+        final var expected = stubUserRepoPages(1);
+        stubSingleBranchForEveryRepo();
+
+        assertThat(listRepositoryNames()).containsExactlyElementsOf(expected);
+
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/users/" + USER + "/repos"))
+                .withQueryParam("per_page", equalTo(String.valueOf(GithubClient.PER_PAGE))));
+    }
+
+    @Test
+    void givenTwoPages_whenListingRepositories_thenMergesPagesInOrder() {
+        final var expected = stubUserRepoPages(2);
+        stubSingleBranchForEveryRepo();
+
+        assertThat(listRepositoryNames()).containsExactlyElementsOf(expected);
+
+        wireMock.verify(2, getRequestedFor(urlPathEqualTo("/users/" + USER + "/repos")));
+    }
+
+    @Test
+    void givenFiftyFivePages_whenListingRepositories_thenMergedResultMatchesSequentialOrder() {
+        final var expected = stubUserRepoPages(55);
+        stubSingleBranchForEveryRepo();
+
+        assertThat(listRepositoryNames()).containsExactlyElementsOf(expected);
+
+        wireMock.verify(55, getRequestedFor(urlPathEqualTo("/users/" + USER + "/repos")));
+        IntStream.rangeClosed(1, 55).forEach(page ->
+                wireMock.verify(1, getRequestedFor(urlPathEqualTo("/users/" + USER + "/repos"))
+                        .withQueryParam("page", equalTo(String.valueOf(page)))));
+    }
+
+    @Test
+    void givenBranchesOnThreePages_whenListingRepositories_thenReturnsAllBranchesInOrder() {
+        stubUserRepoPages(1);
+        stubBranchPages("repo-1-1", 3);
+        stubBranchPages("repo-1-2", 1);
+
+        restTestClient.get()
+                .uri("/users/{username}/repositories", USER)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryResponse[].class)
+                .consumeWith(result -> {
+                    assertThat(result.getResponseBody()).isNotNull();
+                    final var repo = result.getResponseBody()[0];
+
+                    assertThat(repo.branches())
+                            .extracting(BranchResponse::name)
+                            .containsExactly("branch-1", "branch-2", "branch-3");
+                });
+    }
+
+    // ---------- Helpers ----------
+
+    private List<String> listRepositoryNames() {
+        final var body = restTestClient.get()
+                .uri("/users/{username}/repositories", USER)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(RepositoryResponse[].class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(body).isNotNull();
+        return List.of(body).stream().map(RepositoryResponse::repositoryName).toList();
+    }
+
+    // ---------- WireMock stubs ----------
+
+    private List<String> stubUserRepoPages(final int pages) {
+        final var expectedNames = new ArrayList<String>();
+
+        for (int page = 1; page <= pages; page++) {
+            final var repos = new ArrayList<GithubRepo>();
+            for (int i = 1; i <= REPOS_PER_PAGE; i++) {
+                final var name = "repo-%d-%d".formatted(page, i);
+                repos.add(new GithubRepo(name, new GithubRepo.Owner(USER), false, "main"));
+                expectedNames.add(name);
+            }
+
+            final var response = okJson(objectMapper.writeValueAsString(repos));
+            if (page == 1 && pages > 1) {
+                response.withHeader("Link", linkHeader("/users/" + USER + "/repos", pages));
+            }
+
+            wireMock.stubFor(get(urlPathEqualTo("/users/" + USER + "/repos"))
+                    .withQueryParam("page", equalTo(String.valueOf(page)))
+                    .willReturn(response));
+        }
+        return expectedNames;
+    }
+
+    private void stubSingleBranchForEveryRepo() {
+        final var branches = List.of(new GithubBranch("main", new GithubBranch.Commit("aaa111")));
+
+        wireMock.stubFor(get(urlPathMatching("/repos/" + USER + "/[^/]+/branches"))
+                .willReturn(okJson(objectMapper.writeValueAsString(branches))));
+    }
+
+    private void stubBranchPages(final String repository, final int pages) {
+        final var path = "/repos/" + USER + "/" + repository + "/branches";
+
+        for (int page = 1; page <= pages; page++) {
+            final var branches = List.of(new GithubBranch("branch-" + page, new GithubBranch.Commit("sha" + page)));
+
+            final var response = okJson(objectMapper.writeValueAsString(branches));
+            if (page == 1 && pages > 1) {
+                response.withHeader("Link", linkHeader(path, pages));
+            }
+
+            wireMock.stubFor(get(urlPathEqualTo(path))
+                    .withQueryParam("page", equalTo(String.valueOf(page)))
+                    .willReturn(response));
+        }
+    }
+
+    private static String linkHeader(final String path, final int lastPage) {
+        final var base = wireMock.baseUrl() + path + "?per_page=" + GithubClient.PER_PAGE + "&page=";
+        return "<%s2>; rel=\"next\", <%s%d>; rel=\"last\"".formatted(base, base, lastPage);
+    }
+}
@@ -0,0 +1,206 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs three replicas in this JVM on their own localhost ports, sharing one ring and one mocked GitHub.
+ */
+class GithubPeersIT {
+
+    private static final int REPLICAS = 3;
+    private static final String USER = "octocat";
+    private static final String WEBHOOK_SECRET = "webhook-test-secret";
+    private static final String PEER_SECRET = "peer-test-secret";
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    private final List<ConfigurableApplicationContext> replicas = new ArrayList<>();
+    private final List<Integer> ports = new ArrayList<>();
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeEach
+    void startReplicas() throws IOException {
+        for (int i = 0; i < REPLICAS; i++) {
+            ports.add(freePort());
+        }
+        final var members = ports.stream()
+                .map(port -> "http://localhost:" + port)
+                .collect(Collectors.joining(","));
+
+        for (final var port : ports) {
+            replicas.add(new SpringApplicationBuilder(GithubReposProxyApplication.class).properties(
+                    "server.port=" + port,
+                    "spring.http.serviceclient.github.base-url=" + wireMock.baseUrl(),
+                    "github.peers.enabled=true",
+                    "github.peers.self=http://localhost:" + port,
+                    "github.peers.members=" + members,
+                    "github.peers.near-cache-ttl=1m",
+                    "github.peers.secret=" + PEER_SECRET,
+                    "github.webhook.secret=" + WEBHOOK_SECRET
+            ).run());
+        }
+    }
+
+    @AfterEach
+    void stopReplicas() {
+        replicas.forEach(ConfigurableApplicationContext::close);
+        httpClient.close();
+    }
+
+    @Test
+    void givenSameUserRequestedOnEveryReplica_whenServing_thenOnlyOwnerCallsGithub() throws Exception {
+        stubUser();
+
+        final var bodies = new ArrayList<String>();
+        for (final var port : ports) {
+            bodies.add(request(port));
+            bodies.add(request(port));
+        }
+
+        assertThat(bodies).allSatisfy(body -> assertThat(body).isEqualTo(bodies.getFirst()));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/users/" + USER + "/repos")));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/repos/" + USER + "/my-repo/branches")));
+
+        assertThat(replicas.stream().filter(replica -> replica.getBean(GithubPeers.class).owns(USER))).hasSize(1);
+        assertThat(lookups("forwarded")).isEqualTo(REPLICAS - 1);
+        assertThat(lookups("near-cache")).isEqualTo(REPLICAS - 1);
+    }
+
+    @Test
+    void givenNoPeerSecret_whenCallingInternalEndpointDirectly_thenRejected() throws Exception {
+        stubUser();
+
+        final var response = httpClient.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + ports.getFirst() + GithubPeers.PATH + USER))
+                        .header(GithubPeers.SECRET_HEADER, "guessed")
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()
+        );
+
+        assertThat(response.statusCode()).isEqualTo(401);
+        wireMock.verify(0, getRequestedFor(urlPathEqualTo("/users/" + USER + "/repos")));
+    }
+
+    @Test
+    void givenOwnerDown_whenServing_thenFallsBackToGithub() throws Exception {
+        stubUser();
+        final var owner = replicas.stream()
+                .filter(replica -> replica.getBean(GithubPeers.class).owns(USER))
+                .findFirst()
+                .orElseThrow();
+        final var nonOwnerPort = ports.get((replicas.indexOf(owner) + 1) % REPLICAS);
+        owner.close();
+
+        request(nonOwnerPort);
+
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/users/" + USER + "/repos")));
+        assertThat(lookups("fallback")).isEqualTo(1);
+    }
+
+    @Test
+    void givenWebhookDeliveredToNonOwner_whenApplied_thenOwnerTreeIsUpdated() throws Exception {
+        stubUser();
+        final var owner = replicas.stream()
+                .filter(replica -> replica.getBean(GithubPeers.class).owns(USER))
+                .findFirst()
+                .orElseThrow();
+        final var nonOwnerPort = ports.get((replicas.indexOf(owner) + 1) % REPLICAS);
+        assertThat(request(nonOwnerPort)).contains("aaa111");
+
+        final var payload = new ClassPathResource("webhooks/push.json").getContentAsByteArray();
+        final var response = httpClient.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + nonOwnerPort + "/webhooks/github"))
+                        .header("Content-Type", "application/json")
+                        .header("X-GitHub-Event", "push")
+                        .header("X-Hub-Signature-256", sign(payload))
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(payload))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()
+        );
+
+        assertThat(response.statusCode()).isEqualTo(204);
+        final var ownerTree = owner.getBean(RepositoriesCache.class).peek(USER);
+        assertThat(ownerTree).isNotNull();
+        assertThat(ownerTree.getFirst().branches()).containsExactly(new BranchResponse("main", "ccc333"));
+        assertThat(request(nonOwnerPort)).contains("ccc333").doesNotContain("aaa111");
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/users/" + USER + "/repos")));
+    }
+
+    private String request(final int port) throws IOException, InterruptedException {
+        final var response = httpClient.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/users/" + USER + "/repositories"))
+                        .header("Accept", "application/json")
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()
+        );
+        assertThat(response.statusCode()).isEqualTo(200);
+        return response.body();
+    }
+
+    private double lookups(final String result) {
+        return replicas.stream()
+                .filter(ConfigurableApplicationContext::isActive)
+                .map(replica -> replica.getBean(MeterRegistry.class).find("github.peers.lookups").tag("result", result).counter())
+                .mapToDouble(counter -> counter == null ? 0 : counter.count())
+                .sum();
+    }
+
+    private static int freePort() throws IOException {
+        try (var socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String sign(final byte[] payload) throws GeneralSecurityException {
+        final var mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(WEBHOOK_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload));
+    }
+
+    private static void stubUser() {
+        wireMock.stubFor(get(urlPathEqualTo("/users/" + USER + "/repos"))
+                .willReturn(okJson("""
+                        [
+                          { "name": "my-repo", "fork": false, "owner": { "login": "%s" }, "default_branch": "main" }
+                        ]
+                        """.formatted(USER))));
+        wireMock.stubFor(get(urlPathEqualTo("/repos/" + USER + "/my-repo/branches"))
+                .willReturn(okJson("""
+                        [ { "name": "main", "commit": { "sha": "aaa111" } } ]
+                        """)));
+    }
+}
@@ -0,0 +1,241 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.StructuredTaskScope;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GithubRateLimitGovernorTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GithubRateLimitGovernor governor = new GithubRateLimitGovernor(
+            new RateLimitProperties(5, 3, Duration.ofSeconds(30)),
+            new GithubTokenPool(
+                    new GithubAuthProperties(List.of(), 5000, Duration.ofMinutes(10)),
+                    new RateLimitProperties(5, 3, Duration.ofSeconds(30)),
+                    meterRegistry
+            ),
+            meterRegistry,
+            clock
+    );
+
+    @Test
+    void givenHealthyBudget_whenGithubAnswers403_thenItIsNotTreatedAsRateLimit() {
+        respond(HttpStatus.OK, rateLimit(4000, Duration.ofHours(1)));
+
+        assertThat(governor.retryAfter()).isZero();
+        assertThat(governor.rateLimited(HttpStatus.FORBIDDEN)).isNull();
+        assertThatCode(() -> governor.afterCall(governor.beforeCall())).doesNotThrowAnyException();
+    }
+
+    @Test
+    void givenBudgetAtReserve_whenCalling_thenFailsFastUntilReset() {
+        respond(HttpStatus.OK, rateLimit(5, Duration.ofMinutes(20)));
+
+        assertThat(governor.rateLimited(HttpStatus.FORBIDDEN))
+                .isNotNull()
+                .satisfies(ex -> assertThat(ex.retryAfter()).isEqualTo(Duration.ofMinutes(20)));
+        assertThatThrownBy(governor::beforeCall)
+                .isInstanceOfSatisfying(GithubUnavailableException.class, ex ->
+                        assertThat(ex.retryAfter()).isEqualTo(Duration.ofMinutes(20)));
+
+        clock.advance(Duration.ofMinutes(20));
+        assertThat(governor.retryAfter()).isZero();
+        assertThatCode(() -> governor.afterCall(governor.beforeCall())).doesNotThrowAnyException();
+    }
+
+    @Test
+    void givenRetryAfter_whenCalling_thenFailsFastForThatLong() {
+        final var headers = rateLimit(4000, Duration.ofHours(1));
+        headers.set(HttpHeaders.RETRY_AFTER, "60");
+        respond(HttpStatus.FORBIDDEN, headers);
+
+        assertThat(governor.rateLimited(HttpStatus.FORBIDDEN))
+                .isNotNull()
+                .satisfies(ex -> assertThat(ex.retryAfter()).isEqualTo(Duration.ofSeconds(60)));
+        assertThatThrownBy(governor::beforeCall).isInstanceOf(GithubUnavailableException.class);
+
+        clock.advance(Duration.ofSeconds(60));
+        assertThat(governor.rateLimited(HttpStatus.FORBIDDEN)).isNull();
+    }
+
+    @Test
+    void givenMalformedRateLimitHeaders_whenResponding_thenKeepsLastKnownBudget() {
+        respond(HttpStatus.OK, rateLimit(4000, Duration.ofHours(1)));
+
+        final var malformed = new HttpHeaders();
+        malformed.set(GithubRateLimitGovernor.RATE_LIMIT_REMAINING, "lots");
+        malformed.set(GithubRateLimitGovernor.RATE_LIMIT_RESET, "soon");
+        assertThatCode(() -> respond(HttpStatus.OK, malformed)).doesNotThrowAnyException();
+
+        assertThat(governor.remaining()).isEqualTo(4000);
+    }
+
+    @Test
+    void givenRepeatedServerErrors_whenCalling_thenCircuitOpensForItsDuration() {
+        for (int i = 0; i < 3; i++) {
+            respond(HttpStatus.BAD_GATEWAY, new HttpHeaders());
+        }
+
+        assertThatThrownBy(governor::beforeCall)
+                .isInstanceOfSatisfying(GithubUnavailableException.class, ex ->
+                        assertThat(ex.retryAfter()).isEqualTo(Duration.ofSeconds(30)));
+        assertThat(meterRegistry.get("github.circuit.open").gauge().value()).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(governor.retryAfter()).isZero();
+        assertThat(meterRegistry.get("github.circuit.open").gauge().value()).isZero();
+    }
+
+    @Test
+    void givenHalfOpenCircuit_whenCalling_thenOnlyOneTrialIsSentAndItsSuccessClosesTheCircuit() {
+        for (int i = 0; i < 3; i++) {
+            respond(HttpStatus.BAD_GATEWAY, new HttpHeaders());
+        }
+        clock.advance(Duration.ofSeconds(30));
+
+        final var trial = governor.beforeCall();
+        assertThat(trial.trial()).isTrue();
+        assertThatThrownBy(governor::beforeCall)
+                .isInstanceOf(GithubUnavailableException.class)
+                .hasMessageContaining("half-open");
+
+        governor.onResponse(trial, HttpStatus.OK, new HttpHeaders());
+        governor.afterCall(trial);
+
+        final var next = governor.beforeCall();
+        assertThat(next.trial()).isFalse();
+        governor.afterCall(next);
+    }
+
+    @Test
+    void givenHalfOpenCircuit_whenTrialFails_thenCircuitOpensAgain() {
+        for (int i = 0; i < 3; i++) {
+            respond(HttpStatus.BAD_GATEWAY, new HttpHeaders());
+        }
+        clock.advance(Duration.ofSeconds(30));
+
+        final var trial = governor.beforeCall();
+        governor.onFailure();
+        governor.afterCall(trial);
+
+        assertThatThrownBy(governor::beforeCall)
+                .isInstanceOfSatisfying(GithubUnavailableException.class, ex ->
+                        assertThat(ex.retryAfter()).isEqualTo(Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void givenScopeTimingOutOverStalledCalls_whenCallsAreCancelled_thenCircuitStaysClosed() throws Exception {
+        final var stalledCalls = 8;
+        final var started = new CountDownLatch(stalledCalls);
+        final ClientHttpRequestExecution stalled = (request, body) -> {
+            started.countDown();
+            try {
+                Thread.sleep(Duration.ofMinutes(1));
+            } catch (final InterruptedException e) {
+                // what JdkClientHttpRequest does when the calling thread is interrupted
+                Thread.currentThread().interrupt();
+                throw new IOException("Request was interrupted", e);
+            }
+            throw new AssertionError("stalled call was not cancelled");
+        };
+
+        try (var scope = StructuredTaskScope.open(
+                new DeadlineJoiner<ClientHttpResponse>(),
+                configuration -> configuration.withTimeout(Duration.ofSeconds(1))
+        )) {
+            for (int i = 0; i < stalledCalls; i++) {
+                scope.fork(() -> governor.intercept(request(), new byte[0], stalled));
+            }
+            assertThat(scope.join()).hasSize(stalledCalls).containsOnlyNulls();
+        }
+
+        assertThat(started.getCount()).isZero();
+        assertThat(governor.retryAfter()).isZero();
+        assertThatCode(() -> governor.afterCall(governor.beforeCall())).doesNotThrowAnyException();
+    }
+
+    @Test
+    void givenRepeatedConnectFailures_whenCalling_thenCircuitOpens() {
+        final ClientHttpRequestExecution unreachable = (request, body) -> {
+            throw new ConnectException("Connection refused");
+        };
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> governor.intercept(request(), new byte[0], unreachable))
+                    .isInstanceOf(ConnectException.class);
+        }
+
+        assertThat(governor.retryAfter()).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    private static MockClientHttpRequest request() {
+        return new MockClientHttpRequest(HttpMethod.GET, URI.create("https://api.github.com/users/octocat/repos"));
+    }
+
+    private void respond(final HttpStatus status, final HttpHeaders headers) {
+        final var permit = governor.beforeCall();
+        try {
+            governor.onResponse(permit, status, headers);
+        } finally {
+            governor.afterCall(permit);
+        }
+    }
+
+    private HttpHeaders rateLimit(final int remaining, final Duration untilReset) {
+        final var headers = new HttpHeaders();
+        headers.set(GithubRateLimitGovernor.RATE_LIMIT_REMAINING, String.valueOf(remaining));
+        headers.set(GithubRateLimitGovernor.RATE_LIMIT_RESET,
+                String.valueOf(clock.instant().plus(untilReset).getEpochSecond()));
+        return headers;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(final Instant now) {
+            this.now = now;
+        }
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package dev.piotrschodowski.recruitment;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GithubRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void givenRegisteredHints_whenChecking_thenCoverHttpServiceProxiesAndJsonRecords() {
+        new GithubRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.proxies()
+                .forInterfaces(AopProxyUtils.completeJdkProxyInterfaces(GithubHttpApi.class))).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onType(GithubHttpApi.class).withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(RepositoryResponse.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(BranchResponse.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(GithubRepo.Owner.class)).accepts(hints);
+    }
+}
@@ -0,0 +1,124 @@
+package dev.piotrschodowski.recruitment;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GithubStreamingJsonConverterTest {
+
+    private final GithubStreamingJsonConverter converter = new GithubStreamingJsonConverter(
+            JsonMapper.builder()
+                    .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .build()
+    );
+
+    @Test
+    void givenNestedObjectsAndArraysInSkippedFields_whenReadingRepositories_thenKeepsOnlyUsedFields() throws Exception {
+        final var repositories = readRepositories("""
+                [
+                  {
+                    "id": 1,
+                    "permissions": {"admin": true, "nested": {"deeper": [1, {"name": "not-a-repo"}]}},
+                    "topics": ["java", ["spring", {"fork": true}]],
+                    "name": "hello-world",
+                    "owner": {"login": "octocat", "plan": {"name": "pro", "fork": true}, "login_aliases": []},
+                    "license": null,
+                    "fork": false,
+                    "default_branch": "main"
+                  }
+                ]
+                """);
+
+        assertThat(repositories).containsExactly(
+                new GithubRepo("hello-world", new GithubRepo.Owner("octocat"), false, "main"));
+    }
+
+    @Test
+    void givenForksAndUnknownFields_whenReadingRepositories_thenDropsForks() throws Exception {
+        final var repositories = readRepositories("""
+                [
+                  {"name": "fork", "owner": {"login": "octocat"}, "fork": true, "something_new": {"a": [1, 2]}},
+                  {"name": "source", "owner": {"login": "octocat"}, "fork": false, "something_new": 42}
+                ]
+                """);
+
+        assertThat(repositories).extracting(GithubRepo::name).containsExactly("source");
+    }
+
+    @Test
+    void givenNullOwner_whenReadingRepositories_thenRepositoryIsSkipped() throws Exception {
+        final var repositories = readRepositories("""
+                [
+                  {"name": "orphan", "owner": null, "fork": false},
+                  {"name": "kept", "owner": {"login": "octocat"}, "fork": false}
+                ]
+                """);
+
+        assertThat(repositories).containsExactly(
+                new GithubRepo("kept", new GithubRepo.Owner("octocat"), false, null));
+    }
+
+    @Test
+    void givenNullCommit_whenReadingBranches_thenBranchIsSkipped() throws Exception {
+        final var branches = readBranches("""
+                [
+                  {"name": "dangling", "commit": null, "protected": false},
+                  {"name": "main", "commit": {"sha": "abc123", "url": "https://api.github.com/x"}, "protection": {"required_status_checks": {"contexts": []}}}
+                ]
+                """);
+
+        assertThat(branches).containsExactly(new GithubBranch("main", new GithubBranch.Commit("abc123")));
+    }
+
+    @Test
+    void givenEmptyArray_whenReading_thenReturnsEmptyArrays() throws Exception {
+        assertThat(readRepositories("[]")).isEmpty();
+        assertThat(readBranches("[ ]")).isEmpty();
+    }
+
+    @Test
+    void givenTruncatedJson_whenReading_thenThrowsNotReadable() {
+        assertThatThrownBy(() -> readRepositories("""
+                [{"name": "hello-world", "owner": {"login": "oct
+                """))
+                .isInstanceOf(HttpMessageNotReadableException.class)
+                .hasMessageStartingWith("Malformed GitHub response");
+    }
+
+    @Test
+    void givenObjectInsteadOfArray_whenReading_thenThrowsNotReadable() {
+        assertThatThrownBy(() -> readBranches("""
+                {"message": "Not Found", "documentation_url": "https://docs.github.com/rest"}
+                """))
+                .isInstanceOf(HttpMessageNotReadableException.class)
+                .hasMessageContaining("Expected a JSON array");
+    }
+
+    @Test
+    void givenGithubPayloadTypes_whenAskedToWrite_thenConverterOnlyReads() {
+        assertThat(converter.canRead(GithubRepo[].class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canRead(GithubBranch[].class, MediaType.parseMediaType("application/vnd.github+json"))).isTrue();
+        assertThat(converter.canRead(RepositoryResponse[].class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(GithubRepo[].class, MediaType.APPLICATION_JSON)).isFalse();
+    }
+
+    private GithubRepo[] readRepositories(final String json) throws Exception {
+        return (GithubRepo[]) converter.read(GithubRepo[].class, message(json));
+    }
+
+    private GithubBranch[] readBranches(final String json) throws Exception {
+        return (GithubBranch[]) converter.read(GithubBranch[].class, message(json));
+    }
+
+    private static MockHttpInputMessage message(final String json) {
+        return new MockHttpInputMessage(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,89 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GithubTokenPoolTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void givenTokensWithDifferentBudgets_whenAcquiring_thenPicksTheOneWithMostHeadroom() {
+        final var pool = pool("first", "second");
+
+        final var first = pool.acquire();
+        final var second = pool.acquire();
+        pool.onResponse(first, HttpStatus.OK, rateLimit(100));
+        pool.onResponse(second, HttpStatus.OK, rateLimit(4000));
+        pool.release(first);
+        pool.release(second);
+
+        final var picked = pool.acquire();
+        assertThat(picked).isSameAs(second);
+        assertThat(picked.authorization()).isIn("Bearer first", "Bearer second");
+        assertThat(pool.remaining()).isEqualTo(4100);
+    }
+
+    @Test
+    void givenTokenAtReserve_whenAcquiring_thenItIsParkedUntilReset() {
+        final var pool = pool("first", "second");
+
+        final var spent = pool.acquire();
+        pool.onResponse(spent, HttpStatus.OK, rateLimit(5));
+        pool.release(spent);
+
+        for (int i = 0; i < 10; i++) {
+            final var token = pool.acquire();
+            assertThat(token).isNotSameAs(spent);
+            pool.release(token);
+        }
+        assertThat(meterRegistry.get("github.tokens.parked").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void givenEveryTokenRejected_whenAcquiring_thenFailsFastWithRetryAfter() {
+        final var pool = pool("only");
+
+        final var token = pool.acquire();
+        pool.onResponse(token, HttpStatus.UNAUTHORIZED, new HttpHeaders());
+        pool.release(token);
+
+        assertThatThrownBy(pool::acquire)
+                .isInstanceOfSatisfying(GithubUnavailableException.class, ex ->
+                        assertThat(ex.retryAfter()).isBetween(Duration.ofMinutes(9), Duration.ofMinutes(10)));
+    }
+
+    @Test
+    void givenNoTokens_whenAcquiring_thenCallsStayUnauthenticated() {
+        final var pool = pool();
+
+        assertThat(pool.isEmpty()).isTrue();
+        assertThat(pool.acquire()).isNull();
+        assertThat(pool.remaining()).isEqualTo(-1);
+    }
+
+    private GithubTokenPool pool(final String... tokens) {
+        return new GithubTokenPool(
+                new GithubAuthProperties(List.of(tokens), 5000, Duration.ofMinutes(10)),
+                new RateLimitProperties(5, 5, Duration.ofSeconds(30)),
+                meterRegistry
+        );
+    }
+
+    private static HttpHeaders rateLimit(final int remaining) {
+        final var headers = new HttpHeaders();
+        headers.set(GithubRateLimitGovernor.RATE_LIMIT_REMAINING, String.valueOf(remaining));
+        headers.set(GithubRateLimitGovernor.RATE_LIMIT_RESET,
+                String.valueOf(Instant.now().plus(Duration.ofHours(1)).getEpochSecond()));
+        return headers;
+    }
+}
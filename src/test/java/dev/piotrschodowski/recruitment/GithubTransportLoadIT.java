@@ -0,0 +1,157 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class GithubTransportLoadIT {
+
+    private static final Logger log = LoggerFactory.getLogger(GithubTransportLoadIT.class);
+
+    private static final int REQUESTS = 500;
+    private static final int CONCURRENCY = 16;
+
+    private static ConnectionCountingProxy proxy;
+
+    @Autowired
+    private GithubClient githubClient;
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("github.api.base-url", () -> proxy().baseUrl());
+    }
+
+    @AfterAll
+    static void stopProxy() throws IOException {
+        if (proxy != null) {
+            proxy.close();
+        }
+    }
+
+    @Test
+    void givenManyConcurrentUpstreamCalls_whenFetchingBranches_thenConnectionsAreReused() throws Exception {
+        wireMock.stubFor(get(urlPathMatching("/repos/octocat/[^/]+/branches"))
+                .willReturn(okJson("[ { \"name\": \"main\", \"commit\": { \"sha\": \"aaa111\" } } ]")));
+
+        final var connectionsBefore = proxy.connections();
+
+        try (var executor = Executors.newFixedThreadPool(CONCURRENCY, Thread.ofVirtual().factory())) {
+            final var calls = IntStream.range(0, REQUESTS)
+                    .mapToObj(i -> executor.submit(() -> githubClient.fetchRepositoryBranches("octocat", "repo-" + i)))
+                    .toList();
+            for (final var call : calls) {
+                assertThat(call.get()).hasSize(1);
+            }
+        }
+
+        final var connections = proxy.connections() - connectionsBefore;
+        final var reuseRate = 1.0 - (double) connections / REQUESTS;
+        log.info("GitHub transport: {} requests over {} connections, connection reuse rate {}%",
+                REQUESTS, connections, Math.round(reuseRate * 100));
+
+        assertThat(connections).isLessThanOrEqualTo(CONCURRENCY * 2);
+        assertThat(reuseRate).isGreaterThan(0.9);
+    }
+
+    private static synchronized ConnectionCountingProxy proxy() {
+        if (proxy == null) {
+            proxy = new ConnectionCountingProxy(wireMock.getPort());
+        }
+        return proxy;
+    }
+
+    /**
+     * Plain TCP relay in front of WireMock that counts accepted connections.
+     */
+    private static final class ConnectionCountingProxy implements AutoCloseable {
+
+        private final ServerSocket serverSocket;
+        private final int targetPort;
+        private final AtomicInteger connections = new AtomicInteger();
+
+        ConnectionCountingProxy(final int targetPort) {
+            this.targetPort = targetPort;
+            try {
+                this.serverSocket = new ServerSocket(0);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Thread.ofVirtual().start(this::acceptLoop);
+        }
+
+        String baseUrl() {
+            return "http://localhost:" + serverSocket.getLocalPort();
+        }
+
+        int connections() {
+            return connections.get();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    final var client = serverSocket.accept();
+                    connections.incrementAndGet();
+                    final var upstream = new Socket("localhost", targetPort);
+                    Thread.ofVirtual().start(() -> pipe(client, upstream));
+                    Thread.ofVirtual().start(() -> pipe(upstream, client));
+                } catch (final IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private static void pipe(final Socket from, final Socket to) {
+            try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                in.transferTo(out);
+            } catch (final IOException ignored) {
+                // connection closed by either side
+            } finally {
+                closeQuietly(from);
+                closeQuietly(to);
+            }
+        }
+
+        private static void closeQuietly(final Socket socket) {
+            try {
+                socket.close();
+            } catch (final IOException ignored) {
+                // already closed
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.resttestclient.autoconfigure.AutoConfigureRestTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.client.RestTestClient;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.HexFormat;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureRestTestClient
+class GithubWebhookIT {
+
+    private static final String SECRET = "webhook-test-secret";
+    private static final String USER = "octocat";
+    private static final String REPO = "my-repo";
+
+    @Autowired
+    private RestTestClient restTestClient;
+
+    @Autowired
+    private RepositoriesCache repositoriesCache;
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.http.serviceclient.github.base-url", wireMock::baseUrl);
+        registry.add("github.webhook.secret", () -> SECRET);
+    }
+
+    @BeforeEach
+    void seedCachedTree() {
+        repositoriesCache.put(USER, List.of(
+                new RepositoryResponse("other-repo", USER, List.of(new BranchResponse("main", "fff000"))),
+                new RepositoryResponse(REPO, USER, List.of(
+                        new BranchResponse("dev", "bbb222"),
+                        new BranchResponse("main", "aaa111")
+                ))
+        ));
+    }
+
+    @AfterEach
+    void evictCachedRepositories() {
+        repositoriesCache.invalidateAll();
+    }
+
+    @Test
+    void givenPushToExistingBranch_whenDelivered_thenUpdatesShaInPlaceWithoutCallingGithub() throws Exception {
+        deliver("push", "push.json");
+
+        assertThat(branchesOf(REPO)).containsExactly(
+                new BranchResponse("dev", "bbb222"),
+                new BranchResponse("main", "ccc333")
+        );
+        assertThat(branchesOf("other-repo")).containsExactly(new BranchResponse("main", "fff000"));
+        wireMock.verify(0, anyRequestedFor(anyUrl()));
+    }
+
+    @Test
+    void givenPushCreatingBranch_whenDelivered_thenInsertsBranchInOrder() throws Exception {
+        deliver("push", "push-new-branch.json");
+
+        assertThat(branchesOf(REPO)).extracting(BranchResponse::name)
+                .containsExactly("dev", "feature", "main");
+        wireMock.verify(0, anyRequestedFor(anyUrl()));
+    }
+
+    @Test
+    void givenCreateEvent_whenDelivered_thenRefetchesBranchesOfThatRepositoryOnly() throws Exception {
+        wireMock.stubFor(get(urlPathEqualTo("/repos/" + USER + "/" + REPO + "/branches"))
+                .willReturn(okJson("""
+                        [
+                          { "name": "dev", "commit": { "sha": "bbb222" } },
+                          { "name": "main", "commit": { "sha": "aaa111" } },
+                          { "name": "release", "commit": { "sha": "eee555" } }
+                        ]
+                        """)));
+
+        deliver("create", "create.json");
+
+        assertThat(branchesOf(REPO)).extracting(BranchResponse::name)
+                .containsExactly("dev", "main", "release");
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo("/repos/" + USER + "/" + REPO + "/branches")));
+        wireMock.verify(0, getRequestedFor(urlPathEqualTo("/users/" + USER + "/repos")));
+    }
+
+    @Test
+    void givenDeleteEvent_whenDelivered_thenRemovesBranch() throws Exception {
+        deliver("delete", "delete.json");
+
+        assertThat(branchesOf(REPO)).containsExactly(new BranchResponse("main", "aaa111"));
+        wireMock.verify(0, anyRequestedFor(anyUrl()));
+    }
+
+    @Test
+    void givenRepositoryRenamed_whenDelivered_thenEvictsUser() throws Exception {
+        deliver("repository", "repository-renamed.json");
+
+        assertThat(repositoriesCache.peek(USER)).isNull();
+    }
+
+    @Test
+    void givenWrongSignature_whenDelivered_thenReturns401AndKeepsCache() throws Exception {
+        restTestClient.post()
+                .uri("/webhooks/github")
+                .header("X-GitHub-Event", "delete")
+                .header("X-Hub-Signature-256", "sha256=" + "00".repeat(32))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(payload("delete.json"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        assertThat(branchesOf(REPO)).hasSize(2);
+    }
+
+    // ---------- Helpers ----------
+
+    private void deliver(final String event, final String file) throws IOException, GeneralSecurityException {
+        final var payload = payload(file);
+
+        restTestClient.post()
+                .uri("/webhooks/github")
+                .header("X-GitHub-Event", event)
+                .header("X-Hub-Signature-256", sign(payload))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(payload)
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    private List<BranchResponse> branchesOf(final String repository) {
+        final var cached = repositoriesCache.peek(USER);
+        assertThat(cached).isNotNull();
+        return cached.stream()
+                .filter(repo -> repo.repositoryName().equals(repository))
+                .findFirst()
+                .orElseThrow()
+                .branches();
+    }
+
+    private static byte[] payload(final String file) throws IOException {
+        return new ClassPathResource("webhooks/" + file).getContentAsByteArray();
+    }
+
+    private static String sign(final byte[] payload) throws GeneralSecurityException {
+        final var mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload));
+    }
+}
@@ -0,0 +1,36 @@
+package dev.piotrschodowski.recruitment;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void givenFractionalRetryAfter_whenGithubIsUnavailable_thenHeaderIsRoundedUp() {
+        final var response = handler.handleGithubUnavailable(
+                new GithubUnavailableException("GitHub is unavailable", Duration.ofMillis(1_500)));
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+    }
+
+    @Test
+    void givenFractionalRetryAfter_whenClientIsRateLimited_thenHeaderIsRoundedUp() {
+        final var response = handler.handleTooManyRequests(
+                new TooManyRequestsException("Client exceeded its request budget", Duration.ofNanos(2_000_000_001L)));
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+    }
+
+    @Test
+    void givenWholeOrZeroRetryAfter_whenFormatting_thenKeepsWholeSecondsAndAtLeastOne() {
+        assertThat(GlobalExceptionHandler.retryAfterSeconds(Duration.ofSeconds(60))).isEqualTo("60");
+        assertThat(GlobalExceptionHandler.retryAfterSeconds(Duration.ZERO)).isEqualTo("1");
+        assertThat(GlobalExceptionHandler.retryAfterSeconds(Duration.ofMillis(-5))).isEqualTo("1");
+    }
+}
@@ -0,0 +1,88 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HotUsernamesTest {
+
+    @Test
+    void givenSkewedTraffic_whenRanking_thenHeavyHittersComeFirst() {
+        final var hotUsernames = hotUsernames(true, 3);
+
+        record(hotUsernames, "octocat", 5);
+        record(hotUsernames, "torvalds", 3);
+        record(hotUsernames, "gaearon", 1);
+
+        assertThat(hotUsernames.top(2)).containsExactly(
+                new HotUsernames.HotUsername("octocat", 5, 0),
+                new HotUsernames.HotUsername("torvalds", 3, 0)
+        );
+    }
+
+    @Test
+    void givenAllCountersTaken_whenNewUsernameArrives_thenItReplacesTheSmallestAndInheritsItsCount() {
+        final var hotUsernames = hotUsernames(true, 2);
+
+        record(hotUsernames, "octocat", 4);
+        record(hotUsernames, "torvalds", 2);
+        record(hotUsernames, "gaearon", 1);
+
+        assertThat(hotUsernames.size()).isEqualTo(2);
+        assertThat(hotUsernames.top(2)).containsExactly(
+                new HotUsernames.HotUsername("octocat", 4, 0),
+                new HotUsernames.HotUsername("gaearon", 3, 2)
+        );
+    }
+
+    @Test
+    void givenCounts_whenDecaying_thenTheyAreHalvedAndZeroesDropped() {
+        final var hotUsernames = hotUsernames(true, 3);
+
+        record(hotUsernames, "octocat", 6);
+        record(hotUsernames, "torvalds", 3);
+        record(hotUsernames, "gaearon", 1);
+        hotUsernames.decay();
+
+        assertThat(hotUsernames.top(3)).containsExactly(
+                new HotUsernames.HotUsername("octocat", 3, 0),
+                new HotUsernames.HotUsername("torvalds", 1, 0)
+        );
+        record(hotUsernames, "torvalds", 3);
+        assertThat(hotUsernames.top(1)).containsExactly(new HotUsernames.HotUsername("torvalds", 4, 0));
+    }
+
+    @Test
+    void givenPrefetchDisabled_whenRecording_thenNothingIsTracked() {
+        final var hotUsernames = hotUsernames(false, 3);
+
+        record(hotUsernames, "octocat", 3);
+
+        assertThat(hotUsernames.size()).isZero();
+        assertThat(hotUsernames.top(1)).isEmpty();
+    }
+
+    @Test
+    void givenNoTrackedUsernames_whenCreating_thenFails() {
+        assertThatThrownBy(() -> hotUsernames(true, 0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("tracked-usernames");
+    }
+
+    private static void record(final HotUsernames hotUsernames, final String username, final int times) {
+        for (int i = 0; i < times; i++) {
+            hotUsernames.record(username);
+        }
+    }
+
+    private static HotUsernames hotUsernames(final boolean enabled, final int trackedUsernames) {
+        return new HotUsernames(
+                new PrefetchProperties(enabled, 20, trackedUsernames, Duration.ofSeconds(30), Duration.ofSeconds(50), 0.2),
+                new SimpleMeterRegistry()
+        );
+    }
+}
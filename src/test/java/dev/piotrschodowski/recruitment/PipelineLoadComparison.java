@@ -0,0 +1,117 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires {@code pipeline.load.requests} (default 10 000) concurrent requests for distinct, uncached users at one
+ * pipeline and prints its throughput, peak heap and peak platform thread count. Every user has
+ * {@value #REPOSITORIES} repositories and GitHub answers after {@value #UPSTREAM_DELAY_MS} ms, so each request
+ * keeps that many upstream calls waiting. Subclasses select the pipeline; run both with
+ * {@code ./mvnw test -Dpipeline.load=true -Dtest='*PipelineLoadIT'} and compare the printed lines.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "github.fanout.initial-limit=4096",
+                "github.fanout.max-limit=16384",
+                "github.fanout.latency-threshold=30s"
+        }
+)
+abstract class PipelineLoadComparison {
+
+    private static final Logger log = LoggerFactory.getLogger(PipelineLoadComparison.class);
+
+    private static final int REQUESTS = Integer.getInteger("pipeline.load.requests", 10_000);
+    private static final int REPOSITORIES = 5;
+    private static final int UPSTREAM_DELAY_MS = 50;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort().containerThreads(512).jettyAcceptQueueSize(REQUESTS))
+            .build();
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.http.serviceclient.github.base-url", wireMock::baseUrl);
+    }
+
+    abstract String pipeline();
+
+    @Test
+    @EnabledIfSystemProperty(named = "pipeline.load", matches = "true")
+    void givenTenThousandConcurrentRequests_whenServing_thenReportsThroughputAndMemory() throws Exception {
+        stubGithub();
+
+        final var memory = ManagementFactory.getMemoryMXBean();
+        final var threads = ManagementFactory.getThreadMXBean();
+        System.gc();
+        threads.resetPeakThreadCount();
+        final var heapBefore = memory.getHeapMemoryUsage().getUsed();
+        final var peakHeap = new AtomicLong(heapBefore);
+
+        try (var sampler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
+             var httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            sampler.scheduleAtFixedRate(
+                    () -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                    0, 10, TimeUnit.MILLISECONDS);
+
+            final var startedAt = System.nanoTime();
+            final var responses = IntStream.range(0, REQUESTS)
+                    .mapToObj(i -> httpClient.sendAsync(
+                            HttpRequest.newBuilder(URI.create("http://localhost:%d/users/user-%d/repositories".formatted(port, i)))
+                                    .header("Accept", "application/json")
+                                    .timeout(Duration.ofMinutes(2))
+                                    .build(),
+                            HttpResponse.BodyHandlers.discarding()))
+                    .toList();
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+            final var elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+
+            assertThat(responses).allSatisfy(response -> assertThat(response.join().statusCode()).isEqualTo(200));
+            log.info("Pipeline {}: {} requests in {} ms, {} req/s, peak heap +{} MB, peak platform threads {}",
+                    pipeline(), REQUESTS, elapsed.toMillis(), Math.round(REQUESTS / (elapsed.toNanos() / 1e9)),
+                    (peakHeap.get() - heapBefore) >> 20, threads.getPeakThreadCount());
+        }
+    }
+
+    private static void stubGithub() {
+        final var repositories = IntStream.range(0, REPOSITORIES)
+                .mapToObj(i -> "{ \"name\": \"repo-%d\", \"fork\": false, \"owner\": { \"login\": \"octocat\" } }".formatted(i))
+                .toList();
+        wireMock.stubFor(get(urlPathMatching("/users/[^/]+/repos"))
+                .willReturn(okJson("[" + String.join(",", repositories) + "]").withFixedDelay(UPSTREAM_DELAY_MS)));
+        wireMock.stubFor(get(urlPathMatching("/repos/octocat/[^/]+/branches"))
+                .willReturn(okJson("[ { \"name\": \"main\", \"commit\": { \"sha\": \"aaa111\" } } ]")
+                        .withFixedDelay(UPSTREAM_DELAY_MS)));
+    }
+}
@@ -0,0 +1,130 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.tomakehurst.wiremock.junit5.WireMockExtension;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+class ReactiveGithubControllerIT {
+
+    private static final String EXISTING_USER = "octocat";
+    private static final String MISSING_USER = "missing-user";
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RepositoriesCache repositoriesCache;
+
+    @Value("${local.server.port}")
+    private int port;
+
+    @RegisterExtension
+    static WireMockExtension wireMock = WireMockExtension.newInstance()
+            .options(wireMockConfig().dynamicPort())
+            .build();
+
+    @DynamicPropertySource
+    static void overrideProps(DynamicPropertyRegistry registry) {
+        registry.add("spring.http.serviceclient.github.base-url", wireMock::baseUrl);
+    }
+
+    @AfterEach
+    void evictCachedRepositories() {
+        repositoriesCache.invalidateAll();
+    }
+
+    @Test
+    void givenForksExist_whenListingRepositories_thenReturnsOnlyNonForksWithBranches() throws Exception {
+        stubGithubUser();
+
+        final var response = send(EXISTING_USER, MediaType.APPLICATION_JSON_VALUE);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(objectMapper.readValue(response.body(), RepositoryResponse[].class)).containsExactly(
+                new RepositoryResponse("my-repo", EXISTING_USER, List.of(
+                        new BranchResponse("main", "aaa111"),
+                        new BranchResponse("dev", "bbb222")
+                ))
+        );
+        wireMock.verify(0, getRequestedFor(urlPathEqualTo("/repos/" + EXISTING_USER + "/forked-repo/branches")));
+        assertThat(repositoriesCache.peek(EXISTING_USER)).hasSize(1);
+    }
+
+    @Test
+    void givenNdjsonAccepted_whenListingRepositories_thenStreamsOneRepositoryPerLine() throws Exception {
+        stubGithubUser();
+
+        final var response = send(EXISTING_USER, MediaType.APPLICATION_NDJSON_VALUE);
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.body().lines()
+                .map(line -> objectMapper.readValue(line, RepositoryResponse.class))
+                .toList())
+                .extracting(RepositoryResponse::repositoryName)
+                .containsExactly("my-repo");
+    }
+
+    @Test
+    void givenMissingUser_whenListingRepositories_thenReturns404() throws Exception {
+        wireMock.stubFor(get(urlPathEqualTo("/users/" + MISSING_USER + "/repos"))
+                .willReturn(aResponse().withStatus(404).withHeader("Content-Type", "application/json")
+                        .withBody("{\"message\":\"Not Found\"}")));
+
+        final var response = send(MISSING_USER, MediaType.APPLICATION_JSON_VALUE);
+
+        assertThat(response.statusCode()).isEqualTo(404);
+        assertThat(objectMapper.readValue(response.body(), ErrorResponse.class).status()).isEqualTo(404);
+    }
+
+    private HttpResponse<String> send(final String username, final String accept) throws Exception {
+        final var request = HttpRequest.newBuilder(URI.create("http://localhost:%d/users/%s/repositories".formatted(port, username)))
+                .header("Accept", accept)
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void stubGithubUser() {
+        wireMock.stubFor(get(urlPathEqualTo("/users/" + EXISTING_USER + "/repos"))
+                .willReturn(okJson("""
+                        [
+                          { "name": "forked-repo", "fork": true, "owner": { "login": "octocat" } },
+                          { "name": "my-repo", "fork": false, "owner": { "login": "octocat" }, "default_branch": "main" }
+                        ]
+                        """)));
+        wireMock.stubFor(get(urlPathEqualTo("/repos/" + EXISTING_USER + "/my-repo/branches"))
+                .willReturn(okJson("""
+                        [
+                          { "name": "main", "commit": { "sha": "aaa111" } },
+                          { "name": "dev", "commit": { "sha": "bbb222" } }
+                        ]
+                        """)));
+    }
+}
@@ -0,0 +1,12 @@
+package dev.piotrschodowski.recruitment;
+
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("reactive")
+class ReactivePipelineLoadIT extends PipelineLoadComparison {
+
+    @Override
+    String pipeline() {
+        return "reactive";
+    }
+}
@@ -0,0 +1,179 @@
+package dev.piotrschodowski.recruitment;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoriesCacheTest {
+
+    private static final String USER = "octocat";
+    private static final int MAX_WEIGHT = 20;
+
+    private final FakeTime time = new FakeTime(Instant.parse("2026-01-01T00:00:00Z"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RepositoriesCache cache = new RepositoriesCache(
+            new RepositoriesCacheProperties(Duration.ofMinutes(10), Duration.ofMinutes(1), MAX_WEIGHT, 100),
+            meterRegistry,
+            time,
+            time
+    );
+
+    @AfterEach
+    void closeCache() {
+        cache.close();
+    }
+
+    @Test
+    void givenCachedTree_whenRequestedAgain_thenGithubIsNotCalled() {
+        final var loads = new AtomicInteger();
+
+        final var first = cache.get(USER, username -> {
+            loads.incrementAndGet();
+            return tree("v1", 2);
+        });
+        final var second = cache.get("OctoCat", username -> {
+            loads.incrementAndGet();
+            return tree("v2", 2);
+        });
+
+        assertThat(loads).hasValue(1);
+        assertThat(second).isEqualTo(first);
+        assertThat(gets("hit")).isEqualTo(1);
+        assertThat(gets("miss")).isEqualTo(1);
+    }
+
+    @Test
+    void givenTreeOlderThanTtl_whenRequested_thenItIsLoadedAgain() {
+        cache.get(USER, username -> tree("v1", 2));
+
+        time.advance(Duration.ofMinutes(10).plusSeconds(1));
+
+        assertThat(cache.peek(USER)).isNull();
+        assertThat(cache.get(USER, username -> tree("v2", 2))).isEqualTo(tree("v2", 2));
+    }
+
+    @Test
+    void givenStaleTree_whenRequestedConcurrently_thenServesItWhileOneBackgroundRefreshRuns() throws Exception {
+        cache.get(USER, username -> tree("v1", 2));
+        time.advance(Duration.ofMinutes(2));
+
+        final var refreshes = new AtomicInteger();
+        final var refreshStarted = new CountDownLatch(1);
+        final var releaseRefresh = new CountDownLatch(1);
+        final var served = new ArrayList<List<RepositoryResponse>>();
+        for (int i = 0; i < 3; i++) {
+            served.add(cache.get(USER, username -> {
+                refreshes.incrementAndGet();
+                refreshStarted.countDown();
+                try {
+                    releaseRefresh.await();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+                return tree("v2", 2);
+            }));
+        }
+
+        assertThat(refreshStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(served).allSatisfy(repositories -> assertThat(repositories).isEqualTo(tree("v1", 2)));
+        assertThat(refreshes).hasValue(1);
+
+        releaseRefresh.countDown();
+        await(() -> tree("v2", 2).equals(cache.peek(USER)));
+        assertThat(meterRegistry.get("github.repositories.cache.refreshes").tag("result", "success").counter().count())
+                .isEqualTo(1);
+        assertThat(refreshes).hasValue(1);
+    }
+
+    @Test
+    void givenTreesHeavierThanMaxWeight_whenCaching_thenEvictsByBranchCount() throws Exception {
+        // every tree weighs 1 + 5 branches, so at most 3 fit
+        IntStream.range(0, 10).forEach(user -> cache.put("user-" + user, tree("v1", 5)));
+
+        await(() -> cachedWeight() <= MAX_WEIGHT);
+        assertThat(cachedWeight()).isGreaterThan(0);
+    }
+
+    private long gets(final String result) {
+        return (long) meterRegistry.get("cache.gets")
+                .tag("cache", "github.repositories")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+
+    private int cachedWeight() {
+        final var weight = new AtomicInteger();
+        cache.forEach((username, repositories, loadedAt) -> weight.addAndGet(
+                1 + repositories.stream().mapToInt(repository -> repository.branches().size()).sum()));
+        return weight.get();
+    }
+
+    private static List<RepositoryResponse> tree(final String version, final int branches) {
+        return List.of(new RepositoryResponse("repo", USER, IntStream.range(0, branches)
+                .mapToObj(branch -> new BranchResponse("branch-" + branch, "sha-" + version + "-" + branch))
+                .toList()));
+    }
+
+    private static void await(final BooleanSupplier condition) throws InterruptedException {
+        final var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Wall clock and Caffeine ticker moved together by the test.
+     */
+    private static final class FakeTime extends Clock implements Ticker {
+
+        private final Instant start;
+        private volatile long elapsedNanos;
+
+        private FakeTime(final Instant start) {
+            this.start = start;
+        }
+
+        void advance(final Duration duration) {
+            elapsedNanos += duration.toNanos();
+        }
+
+        @Override
+        public long read() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public Instant instant() {
+            return start.plusNanos(elapsedNanos);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package dev.piotrschodowski.recruitment;
+
+class ServletPipelineLoadIT extends PipelineLoadComparison {
+
+    @Override
+    String pipeline() {
+        return "servlet + virtual threads";
+    }
+}
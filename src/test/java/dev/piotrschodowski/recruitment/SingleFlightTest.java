@@ -0,0 +1,123 @@
+package dev.piotrschodowski.recruitment;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.UncheckedIOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int FOLLOWERS = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void givenLeaderTimingOut_whenFollowersWait_thenTheyShareTheFailureOfOneCall() throws Exception {
+        final var leaderStarted = new CountDownLatch(1);
+        final var followersWaiting = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(FOLLOWERS + 1)) {
+            final var leader = executor.submit(() -> singleFlight.execute("octocat", () -> {
+                calls.incrementAndGet();
+                leaderStarted.countDown();
+                await(followersWaiting);
+                throw new UncheckedIOException(new SocketTimeoutException("Read timed out"));
+            }));
+            leaderStarted.await();
+
+            final var followers = startFollowers(executor);
+            awaitParked(followers.threads());
+            followersWaiting.countDown();
+
+            assertThatThrownBy(leader::get).hasCauseInstanceOf(UncheckedIOException.class);
+            for (final var follower : followers.results()) {
+                assertThatThrownBy(follower::get)
+                        .isInstanceOf(ExecutionException.class)
+                        .hasCauseInstanceOf(UncheckedIOException.class);
+            }
+        }
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    void givenLeaderInterrupted_whenFollowersWait_thenOneOfThemRetries() throws Exception {
+        final var leaderStarted = new CountDownLatch(1);
+        final var followersWaiting = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(FOLLOWERS + 1)) {
+            final var leader = executor.submit(() -> singleFlight.execute("octocat", () -> {
+                calls.incrementAndGet();
+                leaderStarted.countDown();
+                await(followersWaiting);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("scope shut down");
+            }));
+            leaderStarted.await();
+
+            final var followers = startFollowers(executor);
+            awaitParked(followers.threads());
+            followersWaiting.countDown();
+
+            assertThatThrownBy(leader::get).hasCauseInstanceOf(IllegalStateException.class);
+            for (final var follower : followers.results()) {
+                assertThat(follower.get()).isEqualTo("retried");
+            }
+        }
+        assertThat(calls).hasValue(2);
+    }
+
+    private Followers startFollowers(final ExecutorService executor) throws InterruptedException {
+        final var threads = new ArrayList<Thread>();
+        final var results = new ArrayList<Future<String>>();
+        final var started = new CountDownLatch(FOLLOWERS);
+        for (int i = 0; i < FOLLOWERS; i++) {
+            results.add(executor.submit(() -> {
+                synchronized (threads) {
+                    threads.add(Thread.currentThread());
+                }
+                started.countDown();
+                return singleFlight.execute("octocat", () -> {
+                    calls.incrementAndGet();
+                    return "retried";
+                });
+            }));
+        }
+        started.await();
+        return new Followers(List.copyOf(threads), results);
+    }
+
+    /**
+     * Waits until every follower is parked on the leader's flight, so none of them can still become a leader.
+     */
+    private static void awaitParked(final List<Thread> threads) throws InterruptedException {
+        for (final var thread : threads) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Followers(List<Thread> threads, List<Future<String>> results) {
+    }
+}
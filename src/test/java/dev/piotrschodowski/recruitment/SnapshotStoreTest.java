@@ -0,0 +1,96 @@
+package dev.piotrschodowski.recruitment;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void givenSnapshotWithCorruptRecordAndPartialTail_whenLoading_thenRestoresIntactRecordsOnly() throws Exception {
+        final var file = directory.resolve("snapshot.bin");
+
+        final var writerCaches = new Caches();
+        try (var store = writerCaches.store(file)) {
+            writerCaches.repositories.put("alice", List.of(repository("alice", "one")));
+            writerCaches.repositories.put("bob", List.of(repository("bob", "two")));
+            writerCaches.repositories.put("carol", List.of(repository("carol", "three")));
+        }
+
+        flipByteInsideSecondRecord(file);
+        appendPartialRecord(file);
+
+        final var readerCaches = new Caches();
+        try (var store = readerCaches.store(file)) {
+            assertThat(store.load()).isEqualTo(2);
+        }
+
+        assertThat(readerCaches.repositories.peek("alice")).containsExactly(repository("alice", "one"));
+        assertThat(readerCaches.repositories.peek("bob")).isNull();
+        assertThat(readerCaches.repositories.peek("carol")).containsExactly(repository("carol", "three"));
+    }
+
+    @Test
+    void givenMissingSnapshot_whenLoading_thenStartsCold() throws Exception {
+        final var caches = new Caches();
+        try (var store = caches.store(directory.resolve("missing.bin"))) {
+            assertThat(store.load()).isZero();
+        }
+    }
+
+    private static void flipByteInsideSecondRecord(final Path file) throws Exception {
+        final var bytes = Files.readAllBytes(file);
+        final var firstLength = ByteBuffer.wrap(bytes, Integer.BYTES, Integer.BYTES).getInt();
+        final var secondPayload = 3 * Integer.BYTES + firstLength + 3 * Integer.BYTES;
+        bytes[secondPayload + 5] ^= 0x01;
+        Files.write(file, bytes);
+    }
+
+    private static void appendPartialRecord(final Path file) throws Exception {
+        final var partial = ByteBuffer.allocate(3 * Integer.BYTES + 8)
+                .putInt(SnapshotStore.MAGIC)
+                .putInt(500)
+                .putInt(0)
+                .put("{\"kind\":".getBytes())
+                .array();
+        Files.write(file, partial, StandardOpenOption.APPEND);
+    }
+
+    private static RepositoryResponse repository(final String owner, final String name) {
+        return new RepositoryResponse(name, owner, List.of(new BranchResponse("main", "sha-" + name)));
+    }
+
+    private static final class Caches {
+
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        private final RepositoriesCache repositories = new RepositoriesCache(
+                new RepositoriesCacheProperties(Duration.ofMinutes(10), Duration.ofMinutes(1), 10_000, 50_000),
+                meterRegistry
+        );
+        private final GithubConditionalCache conditional = new GithubConditionalCache(100);
+
+        SnapshotStore store(final Path file) {
+            return new SnapshotStore(
+                    new SnapshotProperties(true, file, DataSize.ofMegabytes(1), 64),
+                    repositories,
+                    conditional,
+                    JsonMapper.builder().build(),
+                    meterRegistry
+            );
+        }
+    }
+}